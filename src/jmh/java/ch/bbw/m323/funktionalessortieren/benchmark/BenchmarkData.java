@@ -0,0 +1,43 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.DataGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stellt die Datensätze für die Benchmarks bereit.
+ * Die Länder werden mit dem schnellen Modus des {@link DataGenerator} erzeugt, da Instancio für
+ * mehrere Millionen Zeilen zu langsam ist, und pro Grösse nur einmal pro JVM generiert.
+ */
+final class BenchmarkData {
+
+    private static final Map<Integer, List<Country>> CACHE = new ConcurrentHashMap<>();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Gibt {@code size} generierte Länder in der gewünschten Vorsortierung zurück.
+     * Die zurückgegebene Liste ist eine eigene Kopie und darf verändert werden.
+     */
+    static List<Country> countries(int size, InputOrder order, Comparator<Country> comparator) {
+        List<Country> countries = new ArrayList<>(CACHE.computeIfAbsent(size, DataGenerator::generateCountriesFast));
+        switch (order) {
+            case PRESORTED -> countries.sort(comparator);
+            case REVERSED -> {
+                countries.sort(comparator);
+                Collections.reverse(countries);
+            }
+            case RANDOM -> {
+                // Reihenfolge des Generators ist bereits zufällig
+            }
+        }
+        return countries;
+    }
+}
@@ -0,0 +1,33 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Einstiegspunkt für {@code target/benchmarks.jar}.
+ * Startet JMH mit den üblichen Kommandozeilenoptionen und hängt immer den GC-Profiler an,
+ * damit neben dem Durchsatz auch die Allokationsrate ({@code gc.alloc.rate.norm}) ausgegeben wird.
+ *
+ * <pre>
+ * mvn -Pjmh package
+ * java -jar target/benchmarks.jar CountrySortBenchmark -p size=1000000 -p comparator=POPULATION_ASC
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,56 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.SortByContinentThenPopulationDesc;
+
+import java.util.Comparator;
+
+/**
+ * Alle Sortierreihenfolgen, die in {@code Country} und {@code MainApp} verwendet werden.
+ * Die Varianten aus {@code MainApp} sind hier 1:1 nachgebaut, damit die Benchmarks
+ * dieselben Lambda-, Anonyme-Klassen- und Ketten-Comparatoren messen.
+ */
+public enum CountryComparators {
+
+    NATURAL(Comparator.naturalOrder()),
+    POPULATION_ASC(Country.BY_POPULATION_ASC),
+    POPULATION_DESC(Country.BY_POPULATION_ASC.reversed()),
+    AREA_DESC(Country.BY_AREA_DESC),
+    UN_ACCESSION_DATE_ASC(Country.BY_UN_ACCESSION_DATE_ASC),
+    NUMBER_OF_LANGUAGES_ASC(Country.BY_NUMBER_OF_LANGUAGES_ASC),
+    CONTINENT_THEN_POPULATION_DESC(new SortByContinentThenPopulationDesc()),
+
+    // MainApp Schritt 3: anonyme Klasse, Fläche aufsteigend
+    AREA_ASC_ANONYMOUS(new Comparator<>() {
+        @Override
+        public int compare(Country c1, Country c2) {
+            return Double.compare(c1.getAreaInSquareKm(), c2.getAreaInSquareKm());
+        }
+    }),
+
+    // MainApp Schritt 4: Lambda, UN-Beitrittsdatum mit nulls last
+    UN_ACCESSION_LAMBDA((c1, c2) -> {
+        if (c1.getAccessionToUN() == null && c2.getAccessionToUN() == null) return 0;
+        if (c1.getAccessionToUN() == null) return 1;
+        if (c2.getAccessionToUN() == null) return -1;
+        return c1.getAccessionToUN().compareTo(c2.getAccessionToUN());
+    }),
+
+    // MainApp Schritt 5: Anzahl Sprachen, dann Name
+    LANGUAGES_THEN_NAME(Comparator.<Country>comparingInt(c -> c.getNationalLanguages() != null ? c.getNationalLanguages().size() : 0)
+            .thenComparing(Comparator.comparing(Country::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)))),
+
+    // MainApp Schritt 10c: Kontinent (Anzeigename), dann Fläche absteigend
+    CONTINENT_THEN_AREA_DESC(Comparator.comparing((Country c) -> c.getContinent() != null ? c.getContinent().getDisplayName() : "ZZZ", Comparator.nullsLast(String::compareToIgnoreCase))
+            .thenComparing(Country::getAreaInSquareKm, Comparator.reverseOrder()));
+
+    private final Comparator<Country> comparator;
+
+    CountryComparators(Comparator<Country> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Country> comparator() {
+        return comparator;
+    }
+}
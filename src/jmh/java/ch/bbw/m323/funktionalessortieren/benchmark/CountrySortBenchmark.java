@@ -0,0 +1,77 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht die Sortierwege aus {@code MainApp} für alle Country-Comparatoren.
+ * Jede Variante kopiert die Eingabe zuerst, genau wie {@code MainApp} es tut,
+ * damit alle Messungen dieselbe Ausgangslage haben.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class CountrySortBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param
+    public InputOrder inputOrder;
+
+    @Param
+    public CountryComparators comparator;
+
+    private List<Country> input;
+    private Comparator<Country> sortOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sortOrder = comparator.comparator();
+        input = BenchmarkData.countries(size, inputOrder, sortOrder);
+    }
+
+    @Benchmark
+    public List<Country> listSort() {
+        List<Country> copy = new ArrayList<>(input);
+        copy.sort(sortOrder);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> collectionsSort() {
+        List<Country> copy = new ArrayList<>(input);
+        Collections.sort(copy, sortOrder);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> streamSorted() {
+        return input.stream().sorted(sortOrder).toList();
+    }
+
+    @Benchmark
+    public List<Country> parallelStreamSorted() {
+        return input.parallelStream().sorted(sortOrder).toList();
+    }
+}
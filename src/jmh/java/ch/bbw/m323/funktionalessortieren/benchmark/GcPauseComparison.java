@@ -0,0 +1,121 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.DataGenerator;
+import ch.bbw.m323.funktionalessortieren.LatencyHistogram;
+import ch.bbw.m323.funktionalessortieren.OffHeapCountryStore;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntFunction;
+
+/**
+ * Vergleicht die GC-Pausen, während die Länder als {@code List<Country>} im Heap oder im
+ * {@link OffHeapCountryStore} gehalten werden.
+ *
+ * <p>Beide Varianten lesen pro Runde zufällige Länder und lösen am Ende der Runde ein {@link System#gc()} aus,
+ * der die lebenden Daten vollständig durchläuft. Im Heap wird dabei das vorhandene Objekt gelesen, off-heap
+ * entsteht pro Zugriff ein neues, kurzlebiges {@link Country}; die Laufzeit enthält diese Kosten. Gemessen
+ * werden alle Pausen, die die Collectoren per JMX melden.
+ * Für saubere Zahlen jede Variante in einer eigenen JVM starten:
+ *
+ * <pre>
+ * java -Xmx16g -XX:+UseG1GC -cp target/benchmarks.jar ch.bbw.m323.funktionalessortieren.benchmark.GcPauseComparison 10000000 heap
+ * java -Xmx16g -XX:+UseG1GC -cp target/benchmarks.jar ch.bbw.m323.funktionalessortieren.benchmark.GcPauseComparison 10000000 offheap
+ * </pre>
+ */
+public final class GcPauseComparison {
+
+    private static final int ROUNDS = 10;
+    private static final int READS_PER_ROUND = 2_000_000;
+
+    private static final ConcurrentMap<String, LatencyHistogram> PAUSES = new ConcurrentHashMap<>();
+
+    // Verhindert, dass der JIT die Lesezugriffe entfernt
+    private static volatile long sink;
+
+    private GcPauseComparison() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        String mode = args.length > 1 ? args[1] : "both";
+        listenToCollectors();
+        if (!mode.equals("offheap")) {
+            List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(size));
+            run("heap", size, countries::get);
+            Reference.reachabilityFence(countries);
+        }
+        if (!mode.equals("heap")) {
+            try (OffHeapCountryStore store = OffHeapCountryStore.of(DataGenerator.generateCountriesFast(size))) {
+                run("offheap", size, store::get);
+            }
+        }
+    }
+
+    private static void run(String label, int size, IntFunction<Country> rows) {
+        // Die Daten vor der Messung in die alte Generation bringen
+        System.gc();
+        awaitNotifications();
+        PAUSES.clear();
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < READS_PER_ROUND; i++) {
+                checksum += rows.apply(random.nextInt(size)).getPopulation();
+            }
+            System.gc();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = checksum;
+        awaitNotifications();
+
+        System.out.printf("%s: %,d Länder, %d Runden in %,d ms%n", label, size, ROUNDS, elapsed / 1_000_000);
+        Map<String, LatencyHistogram> pauses = new TreeMap<>(PAUSES);
+        pauses.forEach((name, histogram) -> System.out.printf(
+                "  %-44s %5d Pausen, Summe %,8d ms, Mittel %,7.1f ms, p99 %,6d ms, Max %,6d ms%n",
+                name, histogram.count(), millis(histogram.sum()), histogram.mean() / 1e6,
+                millis(histogram.percentile(0.99)), millis(histogram.max())));
+    }
+
+    // JMX meldet die Pausen asynchron aus einem eigenen Thread
+    private static void awaitNotifications() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static void listenToCollectors() {
+        NotificationListener listener = (notification, handback) -> {
+            if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            String name = info.getGcName() + " (" + info.getGcCause() + ")";
+            PAUSES.computeIfAbsent(name, ignored -> new LatencyHistogram())
+                    .record(info.getGcInfo().getDuration() * 1_000_000);
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+    }
+}
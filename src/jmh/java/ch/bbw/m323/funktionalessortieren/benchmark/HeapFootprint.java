@@ -0,0 +1,81 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.DataGenerator;
+import ch.bbw.m323.funktionalessortieren.NamePool;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misst den Heap-Verbrauch von Ländern vor und nach der Deduplizierung von Namen und Sprachlisten.
+ *
+ * <p>"Vorher" entspricht den Daten aus {@link DataGenerator#generateCountries(int)}: jedes Land hat einen eigenen
+ * Namen und eine eigene {@code ArrayList} mit Sprachen. "Nachher" sind dieselben Länder nach
+ * {@link Country#compact(NamePool)}. Zusätzlich wird die Zeit für wiederholte {@code hashCode}-Aufrufe gemessen.
+ *
+ * <pre>
+ * java -Xmx8g -cp target/benchmarks.jar ch.bbw.m323.funktionalessortieren.benchmark.HeapFootprint 5000000
+ * </pre>
+ */
+public final class HeapFootprint {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final int HASH_ROUNDS = 5;
+
+    // Verhindert, dass der JIT die hashCode-Aufrufe entfernt
+    private static volatile int sink;
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        List<Country> template = DataGenerator.generateCountriesFast(size);
+
+        long baseline = usedHeap();
+        List<Country> countries = new ArrayList<>(size);
+        for (Country country : template) {
+            countries.add(new Country(new String(country.getName().toCharArray()), country.getContinent(), country.getPopulation(),
+                    country.getAreaInSquareKm(), country.getAccessionToUN(), new ArrayList<>(country.getNationalLanguages())));
+        }
+        long before = usedHeap() - baseline;
+        long hashBefore = hashNanos(countries);
+
+        NamePool names = new NamePool();
+        countries.forEach(country -> country.compact(names));
+        long after = usedHeap() - baseline;
+        long hashAfter = hashNanos(countries);
+
+        System.out.printf("Länder:              %,d%n", size);
+        System.out.printf("Heap vorher:         %,d MB (%d Bytes pro Land)%n", before >> 20, before / size);
+        System.out.printf("Heap nachher:        %,d MB (%d Bytes pro Land)%n", after >> 20, after / size);
+        System.out.printf("Verschiedene Namen:  %,d%n", names.size());
+        System.out.printf("hashCode vorher:     %,d ms für %d Durchläufe%n", hashBefore / 1_000_000, HASH_ROUNDS);
+        System.out.printf("hashCode nachher:    %,d ms für %d Durchläufe%n", hashAfter / 1_000_000, HASH_ROUNDS);
+        Reference.reachabilityFence(template);
+    }
+
+    private static long hashNanos(List<Country> countries) {
+        long start = System.nanoTime();
+        int checksum = 0;
+        for (int round = 0; round < HASH_ROUNDS; round++) {
+            for (Country country : countries) {
+                checksum += country.hashCode();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = checksum;
+        return elapsed;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,13 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+/**
+ * Vorsortierung der Eingabedaten eines Benchmarks.
+ */
+public enum InputOrder {
+    /** Bereits nach dem gemessenen Comparator sortiert. */
+    PRESORTED,
+    /** Umgekehrt zum gemessenen Comparator sortiert. */
+    REVERSED,
+    /** Reihenfolge, wie sie der Generator liefert. */
+    RANDOM
+}
@@ -0,0 +1,79 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.ParallelCountrySorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst, wie der {@link ParallelCountrySorter} mit der Anzahl Worker skaliert.
+ * Werte für {@code parallelism} über der Anzahl Kerne der Maschine zeigen den Overhead der Überbelegung.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar ParallelSortScalingBenchmark -p parallelism=1,2,4,8
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ParallelSortScalingBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int parallelism;
+
+    @Param({"8192"})
+    public int sequentialCutoff;
+
+    @Param({"NATURAL", "POPULATION_ASC", "CONTINENT_THEN_POPULATION_DESC", "CONTINENT_THEN_AREA_DESC"})
+    public CountryComparators comparator;
+
+    private List<Country> input;
+    private Comparator<Country> sortOrder;
+    private ParallelCountrySorter sorter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sortOrder = comparator.comparator();
+        input = BenchmarkData.countries(size, InputOrder.RANDOM, sortOrder);
+        sorter = new ParallelCountrySorter(parallelism, sequentialCutoff, ParallelCountrySorter.DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sorter.close();
+    }
+
+    @Benchmark
+    public List<Country> parallelSorter() {
+        List<Country> copy = new ArrayList<>(input);
+        sorter.sort(copy, sortOrder);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> parallelStreamSorted() {
+        return input.parallelStream().sorted(sortOrder).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Continent;
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.CountryQueryEngine;
+import ch.bbw.m323.funktionalessortieren.CountryTable;
+import ch.bbw.m323.funktionalessortieren.DataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Vergleicht die Dashboard-Auswertungen als Stream-Durchgänge über Länder mit der {@link CountryQueryEngine}.
+ * Der Aufbau der Indizes ist nicht Teil der Messung.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class QueryEngineBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<Country> countries;
+    private CountryQueryEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        countries = DataGenerator.generateCountriesFast(size);
+        engine = new CountryQueryEngine(CountryTable.of(countries));
+    }
+
+    @Benchmark
+    public Map<Continent, LongSummaryStatistics> populationByContinentStream() {
+        return countries.parallelStream()
+                .filter(country -> country.getContinent() != null)
+                .collect(Collectors.groupingByConcurrent(Country::getContinent,
+                        Collectors.summarizingLong(Country::getPopulation)));
+    }
+
+    @Benchmark
+    public EnumMap<Continent, CountryQueryEngine.Summary> populationByContinentEngine() {
+        return engine.summarizeByContinent(CountryQueryEngine.Measure.POPULATION);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> accessionDecadesStream() {
+        return countries.stream()
+                .filter(country -> country.getAccessionToUN() != null)
+                .collect(Collectors.groupingBy(country -> Math.floorDiv(country.getAccessionToUN().getYear(), 10) * 10,
+                        TreeMap::new, Collectors.counting()));
+    }
+
+    @Benchmark
+    public NavigableMap<Integer, Long> accessionDecadesEngine() {
+        return engine.countByAccessionDecade();
+    }
+
+    @Benchmark
+    public long populationMedianStream() {
+        long[] populations = countries.stream().mapToLong(Country::getPopulation).sorted().toArray();
+        return populations[(populations.length - 1) / 2];
+    }
+
+    @Benchmark
+    public double populationMedianEngine() {
+        return engine.percentile(CountryQueryEngine.Measure.POPULATION, null, 0.5);
+    }
+}
@@ -0,0 +1,65 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.RadixSortEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht die {@link RadixSortEngine} mit {@link List#sort} für die ganzzahligen Schlüssel ab 1M Zeilen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class RadixSortBenchmark {
+
+    @Param({"1000000", "5000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "PRESORTED"})
+    public InputOrder inputOrder;
+
+    @Param({"POPULATION_ASC", "UN_ACCESSION_DATE_ASC", "NUMBER_OF_LANGUAGES_ASC", "CONTINENT_THEN_POPULATION_DESC", "AREA_DESC"})
+    public CountryComparators comparator;
+
+    private List<Country> input;
+    private Comparator<Country> sortOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sortOrder = comparator.comparator();
+        input = BenchmarkData.countries(size, inputOrder, sortOrder);
+    }
+
+    @Benchmark
+    public List<Country> listSort() {
+        List<Country> copy = new ArrayList<>(input);
+        copy.sort(sortOrder);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> radixSort() {
+        List<Country> copy = new ArrayList<>(input);
+        RadixSortEngine.sort(copy, sortOrder);
+        return copy;
+    }
+}
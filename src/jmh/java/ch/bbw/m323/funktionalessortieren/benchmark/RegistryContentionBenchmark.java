@@ -0,0 +1,153 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.CountryRegistry;
+import ch.bbw.m323.funktionalessortieren.CountrySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Misst Bereichsabfragen nach Bevölkerung unter gleichzeitigen Änderungen, einmal über die {@link CountryRegistry}
+ * und einmal über eine synchronisierte Liste mit Filter und nachträglichem Sortieren.
+ *
+ * <p>Pro Aufruf werden {@link #OPERATIONS} Operationen (10% Änderungen, 90% Abfragen) auf {@code threads}
+ * Tasks verteilt, die entweder auf Plattform-Threads oder auf virtuellen Threads laufen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RegistryContentionBenchmark {
+
+    static final int OPERATIONS = 1 << 12;
+    private static final int WRITE_PERCENT = 10;
+    // Etwa 1% der Länder pro Abfrage
+    private static final long RANGE_WIDTH = 10_000_000L;
+
+    public enum ThreadKind {
+        PLATFORM, VIRTUAL
+    }
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadKind threadKind;
+
+    private CountryRegistry registry;
+    private List<Country> lockedList;
+    private String[] names;
+    private long maxPopulation;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Country> countries = BenchmarkData.countries(size, InputOrder.RANDOM, Comparator.naturalOrder());
+        registry = new CountryRegistry();
+        lockedList = new ArrayList<>(countries.size());
+        names = new String[countries.size()];
+        for (int i = 0; i < countries.size(); i++) {
+            Country original = countries.get(i);
+            // Eindeutige Namen, damit jedes Land ein eigener Eintrag im Register ist
+            Country country = new Country(original.getName() + "-" + i, original.getContinent(), original.getPopulation(),
+                    original.getAreaInSquareKm(), original.getAccessionToUN(), original.getNationalLanguages());
+            names[i] = country.getName();
+            registry.put(CountrySnapshot.of(country));
+            lockedList.add(country);
+            maxPopulation = Math.max(maxPopulation, country.getPopulation());
+        }
+        executor = threadKind == ThreadKind.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long registry() throws InterruptedException, ExecutionException {
+        return run((random, operation) -> {
+            if (operation % 100 < WRITE_PERCENT) {
+                long population = random.nextLong(maxPopulation + 1);
+                registry.update(names[random.nextInt(names.length)], snapshot -> snapshot.withPopulation(population));
+                return 0;
+            }
+            long from = random.nextLong(maxPopulation + 1);
+            return registry.populationBetween(from, from + RANGE_WIDTH).size();
+        });
+    }
+
+    @Benchmark
+    public long synchronizedListWithSort() throws InterruptedException, ExecutionException {
+        return run((random, operation) -> {
+            if (operation % 100 < WRITE_PERCENT) {
+                long population = random.nextLong(maxPopulation + 1);
+                synchronized (lockedList) {
+                    lockedList.get(random.nextInt(lockedList.size())).setPopulation(population);
+                }
+                return 0;
+            }
+            long from = random.nextLong(maxPopulation + 1);
+            List<Country> result;
+            synchronized (lockedList) {
+                result = lockedList.stream()
+                        .filter(country -> country.getPopulation() >= from && country.getPopulation() <= from + RANGE_WIDTH)
+                        .toList();
+            }
+            return result.stream().sorted(Country.BY_POPULATION_ASC).count();
+        });
+    }
+
+    private long run(Operation operation) throws InterruptedException, ExecutionException {
+        List<Future<Long>> futures = new ArrayList<>(threads);
+        int perTask = OPERATIONS / threads;
+        for (int task = 0; task < threads; task++) {
+            SplittableRandom random = new SplittableRandom(task);
+            futures.add(executor.submit(() -> {
+                long checksum = 0;
+                for (int i = 0; i < perTask; i++) {
+                    checksum += operation.apply(random, i);
+                }
+                return checksum;
+            }));
+        }
+        long checksum = 0;
+        for (Future<Long> future : futures) {
+            checksum += future.get();
+        }
+        return checksum;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long apply(SplittableRandom random, int operation);
+    }
+}
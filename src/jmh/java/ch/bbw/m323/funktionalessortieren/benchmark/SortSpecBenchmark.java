@@ -0,0 +1,91 @@
+package ch.bbw.m323.funktionalessortieren.benchmark;
+
+import ch.bbw.m323.funktionalessortieren.Country;
+import ch.bbw.m323.funktionalessortieren.SortSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht verkettete JDK-Comparatoren mit derselben Reihenfolge als {@link SortSpec}:
+ * einmal als kompilierter Comparator und einmal über den gepackten Schlüssel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SortSpecBenchmark {
+
+    /**
+     * Ein JDK-Comparator und die gleichwertige Sortierangabe.
+     */
+    public enum Chain {
+        CONTINENT_THEN_AREA_DESC(CountryComparators.CONTINENT_THEN_AREA_DESC, "continent asc, area desc"),
+        CONTINENT_THEN_POPULATION_DESC(CountryComparators.CONTINENT_THEN_POPULATION_DESC, "continent asc, population desc"),
+        LANGUAGES_THEN_NAME(CountryComparators.LANGUAGES_THEN_NAME, "languages asc, name asc nulls first");
+
+        private final CountryComparators chained;
+        private final String spec;
+
+        Chain(CountryComparators chained, String spec) {
+            this.chained = chained;
+            this.spec = spec;
+        }
+    }
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"CONTINENT_THEN_AREA_DESC", "CONTINENT_THEN_POPULATION_DESC", "LANGUAGES_THEN_NAME"})
+    public Chain chain;
+
+    private List<Country> input;
+    private Comparator<Country> chained;
+    private SortSpec spec;
+    private Comparator<Country> compiled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        chained = chain.chained.comparator();
+        spec = SortSpec.parse(chain.spec);
+        compiled = spec.compile();
+        input = BenchmarkData.countries(size, InputOrder.RANDOM, chained);
+    }
+
+    @Benchmark
+    public List<Country> chainedComparator() {
+        List<Country> copy = new ArrayList<>(input);
+        copy.sort(chained);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> compiledSpec() {
+        List<Country> copy = new ArrayList<>(input);
+        copy.sort(compiled);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Country> packedSpec() {
+        List<Country> copy = new ArrayList<>(input);
+        spec.sort(copy);
+        return copy;
+    }
+}
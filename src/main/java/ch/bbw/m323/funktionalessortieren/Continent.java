@@ -1,5 +1,7 @@
 package ch.bbw.m323.funktionalessortieren;
 
+import java.util.Arrays;
+
 /**
  * Definiert die Kontinente der Welt.
  * Wird verwendet, um Länder einem Kontinent zuzuordnen.
@@ -13,6 +15,9 @@ public enum Continent {
     OZEANIEN("Ozeanien"),
     ANTARKTIS("Antarktis");
 
+    // Rang jedes Kontinents, wenn nach Anzeigename (case-insensitive) sortiert wird; Index = ordinal()
+    private static final int[] DISPLAY_RANKS = computeDisplayRanks();
+
     private final String displayName;
 
     Continent(String displayName) {
@@ -26,6 +31,25 @@ public enum Continent {
         return displayName;
     }
 
+    /**
+     * Gibt die Position des Kontinents zurück, wenn alle Kontinente nach ihrem Anzeigenamen
+     * (ohne Beachtung der Gross-/Kleinschreibung) sortiert werden.
+     * Ein Vergleich der Ränge liefert dieselbe Reihenfolge wie {@code compareToIgnoreCase} auf den Anzeigenamen.
+     */
+    public int getDisplayRank() {
+        return DISPLAY_RANKS[ordinal()];
+    }
+
+    private static int[] computeDisplayRanks() {
+        Continent[] byDisplayName = values();
+        Arrays.sort(byDisplayName, (c1, c2) -> c1.displayName.compareToIgnoreCase(c2.displayName));
+        int[] ranks = new int[byDisplayName.length];
+        for (int rank = 0; rank < byDisplayName.length; rank++) {
+            ranks[byDisplayName[rank].ordinal()] = rank;
+        }
+        return ranks;
+    }
+
     @Override
     public String toString() {
         return displayName;
@@ -14,6 +14,12 @@ public class Country implements Comparable<Country> {
     private LocalDate accessionToUN;
     private List<String> nationalLanguages;
 
+    // Wird bei Bedarf aus dem Namen berechnet und bei setName verworfen
+    private transient NameSortKey nameSortKey;
+
+    // Zwischengespeicherter Hashcode, 0 = nicht berechnet; wird von jedem Setter verworfen
+    private transient int hash;
+
     // Statische Comparatoren
     /**
      * Comparator für die ASC Sortierung von Ländern nach Bevölkerungszahl.
@@ -66,6 +72,21 @@ public class Country implements Comparable<Country> {
 
     public void setName(String name) {
         this.name = name;
+        this.nameSortKey = null;
+        this.hash = 0;
+    }
+
+    /**
+     * Gibt den vorberechneten Sortierschlüssel für den Namen zurück oder {@code null}, falls kein Name gesetzt ist.
+     * Der Schlüssel wird beim ersten Aufruf berechnet und bis zur nächsten Namensänderung wiederverwendet.
+     */
+    public NameSortKey getNameSortKey() {
+        NameSortKey key = nameSortKey;
+        if (key == null && name != null) {
+            key = NameSortKey.of(name);
+            nameSortKey = key;
+        }
+        return key;
     }
 
     public Continent getContinent() {
@@ -74,6 +95,7 @@ public class Country implements Comparable<Country> {
 
     public void setContinent(Continent continent) {
         this.continent = continent;
+        this.hash = 0;
     }
 
     public long getPopulation() {
@@ -82,6 +104,7 @@ public class Country implements Comparable<Country> {
 
     public void setPopulation(long population) {
         this.population = population;
+        this.hash = 0;
     }
 
     public double getAreaInSquareKm() {
@@ -90,6 +113,7 @@ public class Country implements Comparable<Country> {
 
     public void setAreaInSquareKm(double areaInSquareKm) {
         this.areaInSquareKm = areaInSquareKm;
+        this.hash = 0;
     }
 
     public LocalDate getAccessionToUN() {
@@ -98,6 +122,7 @@ public class Country implements Comparable<Country> {
 
     public void setAccessionToUN(LocalDate accessionToUN) {
         this.accessionToUN = accessionToUN;
+        this.hash = 0;
     }
 
     public List<String> getNationalLanguages() {
@@ -106,6 +131,30 @@ public class Country implements Comparable<Country> {
 
     public void setNationalLanguages(List<String> nationalLanguages) {
         this.nationalLanguages = nationalLanguages;
+        this.hash = 0;
+    }
+
+    /**
+     * Prüft, ob die Sprache eine Nationalsprache des Landes ist. Bei einem {@link LanguageSet} ist das O(1).
+     */
+    public boolean speaks(String language) {
+        return nationalLanguages != null && nationalLanguages.contains(language);
+    }
+
+    /**
+     * Ersetzt den Namen durch die gemeinsame Instanz aus dem Pool und die Sprachliste durch das gemeinsame
+     * {@link LanguageSet} mit denselben Sprachen in derselben Reihenfolge. {@code equals} bleibt dabei unverändert;
+     * eine Sprachliste mit doppelten Einträgen wird deshalb nicht ersetzt.
+     */
+    public void compact(NamePool names) {
+        this.name = names.intern(name);
+        if (nationalLanguages != null) {
+            LanguageSet shared = LanguageSet.tryOf(nationalLanguages);
+            if (shared != null) {
+                this.nationalLanguages = shared;
+            }
+        }
+        this.hash = 0;
     }
 
     @Override
@@ -135,7 +184,15 @@ public class Country implements Comparable<Country> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+            // Nur zwischenspeichern, wenn sich die Sprachliste nicht unbemerkt ändern kann
+            if (nationalLanguages == null || nationalLanguages instanceof LanguageSet) {
+                hash = h;
+            }
+        }
+        return h;
     }
 
     @Override
@@ -149,6 +206,6 @@ public class Country implements Comparable<Country> {
         if (other.name == null) {
             return 1;
         }
-        return this.name.compareToIgnoreCase(other.name);
+        return this.getNameSortKey().compareTo(other.getNameSortKey());
     }
 } 
\ No newline at end of file
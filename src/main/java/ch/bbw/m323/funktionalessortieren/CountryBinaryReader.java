@@ -0,0 +1,221 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Liest Dateien, die mit dem {@link CountryBinaryWriter} geschrieben wurden, ohne die Datensätze
+ * in {@link Country}-Objekte umzuwandeln.
+ *
+ * <p>Datensätze werden über ihre Byte-Position adressiert und mit einer wiederverwendbaren
+ * {@link CountryRecordView} gelesen. Filtern und Sortieren nach Schlüsselfeldern arbeitet direkt auf
+ * dem Buffer und liefert die Positionen der passenden Datensätze.
+ *
+ * <p>Dateien werden read-only in den Speicher abgebildet und dürfen deshalb höchstens 2 GB gross sein.
+ */
+public final class CountryBinaryReader {
+
+    private final ByteBuffer buffer;
+    private final LanguageDictionary dictionary;
+    private final int recordCount;
+    private final int recordsEnd;
+    private int[] offsets;
+
+    private CountryBinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int end = buffer.limit();
+        if (end < CountryBinaryWriter.FILE_HEADER_SIZE + CountryBinaryWriter.TRAILER_SIZE
+                || buffer.getInt(0) != CountryBinaryWriter.MAGIC
+                || buffer.getInt(end - Integer.BYTES) != CountryBinaryWriter.MAGIC) {
+            throw new IllegalArgumentException("Kein gültiges Country-Binärformat");
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != CountryBinaryWriter.VERSION) {
+            throw new IllegalArgumentException("Nicht unterstützte Formatversion: " + version);
+        }
+        int trailer = end - CountryBinaryWriter.TRAILER_SIZE;
+        this.recordCount = Math.toIntExact(buffer.getLong(trailer));
+        this.recordsEnd = Math.toIntExact(buffer.getLong(trailer + Long.BYTES));
+        this.dictionary = readDictionary(buffer, recordsEnd);
+    }
+
+    /**
+     * Liest aus einem Buffer, der eine vollständige Datei enthält (Position 0 bis Limit).
+     */
+    public static CountryBinaryReader of(ByteBuffer buffer) {
+        return new CountryBinaryReader(buffer);
+    }
+
+    /**
+     * Bildet die Datei read-only in den Speicher ab.
+     */
+    public static CountryBinaryReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Datei ist für eine Abbildung zu gross: " + channel.size() + " Bytes");
+            }
+            return new CountryBinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static LanguageDictionary readDictionary(ByteBuffer buffer, int offset) {
+        LanguageDictionary dictionary = new LanguageDictionary();
+        int count = buffer.getInt(offset);
+        int position = offset + Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getShort(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + Short.BYTES, bytes);
+            dictionary.idOf(new String(bytes, StandardCharsets.UTF_8));
+            position += Short.BYTES + length;
+        }
+        return dictionary;
+    }
+
+    public int recordCount() {
+        return recordCount;
+    }
+
+    public LanguageDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Gibt eine neue Sicht auf den Datensatz an der Position {@code offset} zurück.
+     */
+    public CountryRecordView view(int offset) {
+        return new CountryRecordView(buffer, dictionary, offset);
+    }
+
+    /**
+     * Gibt die Positionen aller Datensätze in Dateireihenfolge zurück.
+     * Die Positionen werden beim ersten Aufruf einmalig ermittelt.
+     */
+    public int[] recordOffsets() {
+        if (offsets == null) {
+            int[] result = new int[recordCount];
+            int position = CountryBinaryWriter.FILE_HEADER_SIZE;
+            for (int i = 0; i < recordCount; i++) {
+                result[i] = position;
+                position += buffer.getInt(position + CountryRecordCodec.LENGTH_OFFSET);
+            }
+            if (position != recordsEnd) {
+                throw new IllegalStateException("Beschädigte Datei: Datensätze enden bei " + position + " statt " + recordsEnd);
+            }
+            offsets = result;
+        }
+        return offsets.clone();
+    }
+
+    /**
+     * Ruft die Aktion für jeden Datensatz in Dateireihenfolge auf. Es wird dieselbe Sicht wiederverwendet;
+     * sie darf deshalb nicht über den Aufruf hinaus gespeichert werden.
+     */
+    public void forEach(Consumer<CountryRecordView> action) {
+        CountryRecordView view = view(CountryBinaryWriter.FILE_HEADER_SIZE);
+        int position = CountryBinaryWriter.FILE_HEADER_SIZE;
+        for (int i = 0; i < recordCount; i++) {
+            action.accept(view.moveTo(position));
+            position += view.length();
+        }
+    }
+
+    /**
+     * Gibt die Positionen aller Datensätze zurück, welche die Bedingung erfüllen.
+     */
+    public int[] filter(Predicate<CountryRecordView> predicate) {
+        CountryRecordView view = view(CountryBinaryWriter.FILE_HEADER_SIZE);
+        return Arrays.stream(recordOffsets())
+                .filter(offset -> predicate.test(view.moveTo(offset)))
+                .toArray();
+    }
+
+    /**
+     * Sortiert die übergebenen Datensatz-Positionen stabil nach dem Comparator.
+     * Die bekannten Reihenfolgen ({@link CountryOrdering}) werden direkt auf den Schlüsselfeldern im Buffer
+     * sortiert; für alle anderen Comparatoren werden die Datensätze materialisiert.
+     *
+     * @return Ein neues Array mit den sortierten Positionen.
+     */
+    public int[] sortOffsets(int[] recordOffsets, Comparator<? super Country> comparator) {
+        int n = recordOffsets.length;
+        CountryRecordView view = view(CountryBinaryWriter.FILE_HEADER_SIZE);
+        CountryOrdering ordering = CountryOrdering.of(comparator).orElse(null);
+        int[] order;
+        if (ordering != null && RadixSortEngine.supports(ordering)) {
+            order = radixOrder(recordOffsets, ordering, view);
+        } else if (ordering == CountryOrdering.NAME) {
+            NameSortKey[] keys = new NameSortKey[n];
+            for (int i = 0; i < n; i++) {
+                String name = view.moveTo(recordOffsets[i]).name();
+                keys[i] = name != null ? NameSortKey.of(name) : null;
+            }
+            order = IntStream.range(0, n).toArray();
+            IndexSort.sort(order, (i1, i2) -> keys[i1] == null ? (keys[i2] == null ? 0 : -1)
+                    : keys[i2] == null ? 1 : keys[i1].compareTo(keys[i2]));
+        } else {
+            Country[] countries = new Country[n];
+            for (int i = 0; i < n; i++) {
+                countries[i] = view.moveTo(recordOffsets[i]).toCountry();
+            }
+            order = IntStream.range(0, n).toArray();
+            IndexSort.sort(order, (i1, i2) -> comparator.compare(countries[i1], countries[i2]));
+        }
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = recordOffsets[order[i]];
+        }
+        return sorted;
+    }
+
+    private static int[] radixOrder(int[] recordOffsets, CountryOrdering ordering, CountryRecordView view) {
+        int n = recordOffsets.length;
+        if (ordering == CountryOrdering.NUMBER_OF_LANGUAGES_ASC) {
+            int[] counts = new int[n];
+            for (int i = 0; i < n; i++) {
+                counts[i] = view.moveTo(recordOffsets[i]).languageCount();
+            }
+            return RadixSortEngine.sortedOrder(n, counts, Byte.MAX_VALUE + 1, null);
+        }
+        long[] keys = new long[n];
+        int[] buckets = ordering == CountryOrdering.CONTINENT_THEN_POPULATION_DESC ? new int[n] : null;
+        for (int i = 0; i < n; i++) {
+            view.moveTo(recordOffsets[i]);
+            keys[i] = switch (ordering) {
+                case POPULATION_ASC -> RadixSortEngine.populationKey(view.population());
+                case AREA_DESC -> ~RadixSortEngine.areaKey(view.area());
+                case UN_ACCESSION_DATE_ASC -> RadixSortEngine.accessionKey(view.accessionEpochDay());
+                case CONTINENT_THEN_POPULATION_DESC -> {
+                    buckets[i] = CountryTable.continentRank(view.continent());
+                    yield ~RadixSortEngine.populationKey(view.population());
+                }
+                default -> throw new IllegalArgumentException("Keine ganzzahligen Schlüssel für " + ordering);
+            };
+        }
+        return RadixSortEngine.sortedOrder(n, buckets, buckets != null ? CountryTable.CONTINENT_BUCKETS : 0, keys);
+    }
+
+    /**
+     * Materialisiert alle Datensätze in Dateireihenfolge als lazy Stream.
+     */
+    public Stream<Country> countries() {
+        return countries(recordOffsets());
+    }
+
+    /**
+     * Materialisiert die Datensätze an den übergebenen Positionen in dieser Reihenfolge als lazy Stream.
+     */
+    public Stream<Country> countries(int[] recordOffsets) {
+        return Arrays.stream(recordOffsets).mapToObj(offset -> CountryRecordCodec.decode(buffer, offset, dictionary));
+    }
+}
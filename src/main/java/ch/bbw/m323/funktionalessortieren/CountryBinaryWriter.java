@@ -0,0 +1,131 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Schreibt Länder im kompakten Binärformat, das der {@link CountryBinaryReader} ohne
+ * Materialisierung lesen kann.
+ *
+ * <pre>
+ * Datei      = Kopf Datensatz* Wörterbuch Trailer
+ * Kopf       = int MAGIC, int VERSION
+ * Datensatz  = siehe {@link CountryRecordCodec}
+ * Wörterbuch = int Anzahl, (short Länge, UTF-8-Bytes)* in der Reihenfolge der Sprach-Ids
+ * Trailer    = long Anzahl Datensätze, long Offset des Wörterbuchs, int MAGIC
+ * </pre>
+ *
+ * Das Wörterbuch steht am Ende, damit die Datensätze in einem Durchgang in einen nicht
+ * positionierbaren Kanal geschrieben werden können. Alle Zahlen sind Big-Endian.
+ */
+public final class CountryBinaryWriter implements Closeable {
+
+    /** Kennung am Anfang und Ende jeder Datei ("CTRY"). */
+    public static final int MAGIC = 0x43545259;
+
+    /** Aktuelle Version des Formats. */
+    public static final int VERSION = 1;
+
+    static final int FILE_HEADER_SIZE = 2 * Integer.BYTES;
+    static final int TRAILER_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final LanguageDictionary dictionary = new LanguageDictionary();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long position;
+    private long recordCount;
+    private boolean closed;
+
+    /**
+     * Erstellt einen Writer, der in den übergebenen Kanal schreibt. Der Kanal wird mit {@link #close()} geschlossen.
+     */
+    public CountryBinaryWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * Erstellt oder überschreibt die Datei und gibt einen Writer dafür zurück.
+     */
+    public static CountryBinaryWriter create(Path file) throws IOException {
+        return new CountryBinaryWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Hängt einen Datensatz an.
+     */
+    public void write(Country country) throws IOException {
+        byte[] nameBytes = CountryRecordCodec.encodeName(country);
+        int length = CountryRecordCodec.recordLength(country, nameBytes);
+        ensureRemaining(length);
+        CountryRecordCodec.encode(country, nameBytes, buffer, dictionary);
+        recordCount++;
+    }
+
+    /**
+     * Hängt alle Länder in der gegebenen Reihenfolge an.
+     */
+    public void writeAll(Iterable<Country> countries) throws IOException {
+        for (Country country : countries) {
+            write(country);
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Schreibt Wörterbuch und Trailer und schliesst den Kanal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            long dictionaryOffset = position + buffer.position();
+            List<String> languages = dictionary.languages();
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(languages.size());
+            for (String language : languages) {
+                byte[] bytes = language.getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(Short.BYTES + bytes.length);
+                buffer.putShort((short) bytes.length).put(bytes);
+            }
+            ensureRemaining(TRAILER_SIZE);
+            buffer.putLong(recordCount).putLong(dictionaryOffset).putInt(MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocateDirect(bytes);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
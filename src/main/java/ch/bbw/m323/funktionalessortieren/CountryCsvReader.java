@@ -0,0 +1,179 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest Länder im CSV-Format des {@link CountryCsvWriter}.
+ *
+ * <p>Die erste Zeile muss die Kopfzeile {@link CountryCsvWriter#HEADER} sein. Felder in Anführungszeichen dürfen
+ * Kommas, verdoppelte Anführungszeichen und Zeilenumbrüche enthalten; Zeilen dürfen mit {@code \n} oder
+ * {@code \r\n} enden. Gleiche Namen und Sprachen werden nur einmal gespeichert ({@link NamePool}).
+ */
+public final class CountryCsvReader {
+
+    private static final int FIELDS = 6;
+
+    private final Reader in;
+    private final char[] chars = new char[1 << 16];
+    private final StringBuilder field = new StringBuilder(64);
+    private final String[] values = new String[FIELDS];
+    private final NamePool names = new NamePool();
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    private CountryCsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Liest alle Länder der Datei (UTF-8).
+     *
+     * @throws IllegalArgumentException Falls die Datei nicht dem Format entspricht.
+     */
+    public static List<Country> read(Path file) throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Liest alle Länder bis zum Ende des Readers; der Reader wird nicht geschlossen.
+     *
+     * @throws IllegalArgumentException Falls die Daten nicht dem Format entsprechen.
+     */
+    public static List<Country> read(Reader in) throws IOException {
+        CountryCsvReader reader = new CountryCsvReader(in);
+        if (!reader.readRecord() || !String.join(",", reader.values).equals(CountryCsvWriter.HEADER)) {
+            throw new IllegalArgumentException("Erwartet die Kopfzeile '" + CountryCsvWriter.HEADER + "'");
+        }
+        List<Country> countries = new ArrayList<>();
+        long recordLine = reader.line;
+        while (reader.readRecord()) {
+            countries.add(reader.toCountry(recordLine));
+            recordLine = reader.line;
+        }
+        return countries;
+    }
+
+    private Country toCountry(long recordLine) {
+        try {
+            return new Country(names.intern(values[0]),
+                    values[1] != null ? Continent.valueOf(values[1]) : null,
+                    Long.parseLong(required(values[2], "population")),
+                    Double.parseDouble(required(values[3], "area")),
+                    values[4] != null ? LocalDate.parse(values[4]) : null,
+                    languages(values[5]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Zeile " + recordLine + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String required(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Das Feld '" + name + "' fehlt");
+        }
+        return value;
+    }
+
+    private List<String> languages(String value) {
+        if (value == null) {
+            return null;
+        }
+        List<String> languages = new ArrayList<>(2);
+        if (value.isEmpty()) {
+            return languages;
+        }
+        int start = 0;
+        while (true) {
+            int end = value.indexOf(CountryCsvWriter.LANGUAGE_SEPARATOR, start);
+            languages.add(names.intern(value.substring(start, end >= 0 ? end : value.length())));
+            if (end < 0) {
+                return languages;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Liest den nächsten Datensatz nach {@link #values}; ein leeres Feld ohne Anführungszeichen wird {@code null}.
+     *
+     * @return {@code false} am Ende der Daten.
+     */
+    private boolean readRecord() throws IOException {
+        int c = next();
+        if (c < 0) {
+            return false;
+        }
+        int count = 0;
+        while (true) {
+            field.setLength(0);
+            boolean quoted = c == '"';
+            if (quoted) {
+                while (true) {
+                    c = next();
+                    if (c < 0) {
+                        throw error("Anführungszeichen nicht geschlossen");
+                    }
+                    if (c == '"') {
+                        c = next();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                if (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+                    throw error("Unerwartetes Zeichen nach Anführungszeichen: '" + (char) c + "'");
+                }
+            } else {
+                while (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+                    field.append((char) c);
+                    c = next();
+                }
+            }
+            if (count == FIELDS) {
+                throw error("Mehr als " + FIELDS + " Felder");
+            }
+            values[count++] = quoted || !field.isEmpty() ? field.toString() : null;
+            if (c != ',') {
+                break;
+            }
+            c = next();
+        }
+        if (c == '\r' && next() != '\n' && limit > 0) {
+            position--;
+        }
+        if (count != FIELDS) {
+            throw error("Erwartet " + FIELDS + " Felder, gefunden " + count);
+        }
+        line++;
+        return true;
+    }
+
+    private int next() throws IOException {
+        if (position == limit) {
+            limit = in.read(chars, 0, chars.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return chars[position++];
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Zeile " + line + ": " + message);
+    }
+}
@@ -0,0 +1,288 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Schreibt Länder als CSV (UTF-8, RFC 4180), das der {@link CountryCsvReader} wieder einlesen kann.
+ *
+ * <pre>
+ * name,continent,population,area,accessionToUN,languages
+ * Albarien,EUROPA,8123456,41285.5,1955-12-14,Deutsch;Französisch
+ * </pre>
+ *
+ * Der Kontinent steht als Enum-Name, das Datum im ISO-Format, die Sprachen durch {@code ;} getrennt. Ein leeres
+ * Feld ohne Anführungszeichen steht für {@code null}, {@code ""} für einen leeren Namen bzw. eine leere
+ * Sprachliste. Felder mit Komma, Anführungszeichen oder Zeilenumbruch werden in Anführungszeichen gesetzt.
+ *
+ * <p>Jede Zeile wird in einem wiederverwendeten {@link StringBuilder} formatiert, direkt als UTF-8 in einen
+ * wiederverwendeten Puffer kodiert und blockweise in den Kanal geschrieben; pro Zeile entstehen keine Strings.
+ */
+public final class CountryCsvWriter implements Closeable {
+
+    /** Kopfzeile jeder Datei. */
+    public static final String HEADER = "name,continent,population,area,accessionToUN,languages";
+
+    static final char LANGUAGE_SEPARATOR = ';';
+
+    private static final int BUFFER_SIZE = 1 << 18;
+
+    private final WritableByteChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer output = ByteBuffer.wrap(bytes);
+    private final StringBuilder line = new StringBuilder(256);
+    private int count;
+    private long bytesWritten;
+    private long recordCount;
+    private boolean closed;
+
+    /**
+     * Erstellt einen Writer, der in den übergebenen Kanal schreibt, und schreibt die Kopfzeile.
+     * Der Kanal wird mit {@link #close()} geschlossen.
+     */
+    public CountryCsvWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        line.append(HEADER).append('\n');
+        emit();
+    }
+
+    /**
+     * Erstellt oder überschreibt die Datei und gibt einen Writer dafür zurück.
+     */
+    public static CountryCsvWriter create(Path file) throws IOException {
+        return new CountryCsvWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Hängt ein Land an. Wird es abgelehnt, bleibt die Ausgabe unverändert.
+     *
+     * @throws IllegalArgumentException Falls eine Sprache leer ist oder ein {@code ;} enthält.
+     */
+    public void write(Country country) throws IOException {
+        // Erst alles prüfen, damit eine abgelehnte Zeile nichts im gemeinsamen StringBuilder zurücklässt
+        int accessionEpochDay = CountryTable.toEpochDay(country.getAccessionToUN());
+        List<String> languages = country.getNationalLanguages();
+        boolean quoted = languages != null && languages.isEmpty();
+        if (languages != null) {
+            for (String language : languages) {
+                quoted |= needsQuotes(checkLanguage(language));
+            }
+        }
+        appendFields(country.getName(), country.getContinent(), country.getPopulation(), country.getAreaInSquareKm(),
+                accessionEpochDay);
+        if (languages != null) {
+            quote(quoted);
+            for (int i = 0; i < languages.size(); i++) {
+                appendLanguage(i, languages.get(i), quoted);
+            }
+            quote(quoted);
+        }
+        endRecord();
+    }
+
+    /**
+     * Hängt eine Zeile der Tabelle an, ohne ein {@link Country} zu erstellen.
+     */
+    public void write(CountryTable table, int row) throws IOException {
+        int count = table.languageCount(row);
+        LanguageDictionary dictionary = table.dictionary();
+        boolean quoted = count == 0;
+        if (table.hasLanguageList(row)) {
+            for (int i = 0; i < count; i++) {
+                quoted |= needsQuotes(checkLanguage(dictionary.language(table.languageId(row, i))));
+            }
+        }
+        appendFields(table.name(row), table.continent(row), table.population(row), table.area(row),
+                table.accessionEpochDay(row));
+        if (table.hasLanguageList(row)) {
+            quote(quoted);
+            for (int i = 0; i < count; i++) {
+                appendLanguage(i, dictionary.language(table.languageId(row, i)), quoted);
+            }
+            quote(quoted);
+        }
+        endRecord();
+    }
+
+    /**
+     * Hängt die Zeilen der Tabelle in der Reihenfolge der Permutation an.
+     */
+    public void writeAll(CountryTable table, int[] permutation) throws IOException {
+        for (int row : permutation) {
+            write(table, row);
+        }
+    }
+
+    /**
+     * Hängt alle Länder in der gegebenen Reihenfolge an.
+     */
+    public void writeAll(Iterable<Country> countries) throws IOException {
+        for (Country country : countries) {
+            write(country);
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gibt die Anzahl Bytes zurück, die bisher in den Kanal geschrieben wurden (ohne den Inhalt des Buffers).
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void appendFields(String name, Continent continent, long population, double area, int accessionEpochDay) {
+        if (name != null) {
+            boolean quoted = name.isEmpty() || needsQuotes(name);
+            quote(quoted);
+            appendText(name, quoted);
+            quote(quoted);
+        }
+        line.append(',');
+        if (continent != null) {
+            line.append(continent.name());
+        }
+        line.append(',').append(population).append(',').append(area).append(',');
+        if (accessionEpochDay != CountryTable.NO_ACCESSION) {
+            LocalDate date = LocalDate.ofEpochDay(accessionEpochDay);
+            if (date.getYear() < 1000 || date.getYear() > 9999) {
+                // Nur vierstellige Jahre selbst formatieren, sonst gilt das ISO-Format von LocalDate
+                line.append(date);
+            } else {
+                line.append(date.getYear()).append('-');
+                appendTwoDigits(date.getMonthValue());
+                line.append('-');
+                appendTwoDigits(date.getDayOfMonth());
+            }
+        }
+        line.append(',');
+    }
+
+    private void appendTwoDigits(int value) {
+        if (value < 10) {
+            line.append('0');
+        }
+        line.append(value);
+    }
+
+    private void appendLanguage(int index, String language, boolean quoted) {
+        if (index > 0) {
+            line.append(LANGUAGE_SEPARATOR);
+        }
+        appendText(language, quoted);
+    }
+
+    private static String checkLanguage(String language) {
+        if (language == null || language.isEmpty()) {
+            throw new IllegalArgumentException("Eine Sprache darf nicht leer sein");
+        }
+        if (language.indexOf(LANGUAGE_SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Eine Sprache darf kein '" + LANGUAGE_SEPARATOR + "' enthalten: " + language);
+        }
+        return language;
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void quote(boolean quoted) {
+        if (quoted) {
+            line.append('"');
+        }
+    }
+
+    // In einem quotierten Feld werden Anführungszeichen verdoppelt
+    private void appendText(String text, boolean quoted) {
+        if (!quoted) {
+            line.append(text);
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+    }
+
+    private void endRecord() throws IOException {
+        line.append('\n');
+        emit();
+        recordCount++;
+    }
+
+    // Kodiert die Zeile als UTF-8 in den Puffer; einzelne Surrogates werden wie bei String#getBytes zu '?'
+    private void emit() throws IOException {
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (count + 4 > bytes.length) {
+                flush();
+            }
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes[count++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[count++] = (byte) (0xC0 | c >> 6);
+                bytes[count++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(line.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, line.charAt(++i));
+                bytes[count++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[count++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[count++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[count++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                bytes[count++] = '?';
+            } else {
+                bytes[count++] = (byte) (0xE0 | c >> 12);
+                bytes[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[count++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        line.setLength(0);
+    }
+
+    /**
+     * Schreibt den Inhalt des Puffers in den Kanal, ohne ihn zu schliessen.
+     */
+    public void flush() throws IOException {
+        output.clear().limit(count);
+        while (output.hasRemaining()) {
+            bytesWritten += channel.write(output);
+        }
+        count = 0;
+    }
+
+    /**
+     * Schreibt den Buffer und schliesst den Kanal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Die bekannten Sortierreihenfolgen für Länder.
+ * Erlaubt spezialisierten Sortierverfahren (z.B. {@link CountryTable}), einen übergebenen
+ * {@link Comparator} wiederzuerkennen und ihn ohne Getter-Aufrufe direkt auf den Schlüsseln auszuführen.
+ */
+public enum CountryOrdering {
+
+    /** Natürliche Ordnung nach Name, siehe {@link Country#compareTo(Country)}. */
+    NAME(Comparator.naturalOrder()),
+
+    /** Siehe {@link Country#BY_POPULATION_ASC}. */
+    POPULATION_ASC(Country.BY_POPULATION_ASC),
+
+    /** Siehe {@link Country#BY_AREA_DESC}. */
+    AREA_DESC(Country.BY_AREA_DESC),
+
+    /** Siehe {@link Country#BY_UN_ACCESSION_DATE_ASC}. */
+    UN_ACCESSION_DATE_ASC(Country.BY_UN_ACCESSION_DATE_ASC),
+
+    /** Siehe {@link Country#BY_NUMBER_OF_LANGUAGES_ASC}. */
+    NUMBER_OF_LANGUAGES_ASC(Country.BY_NUMBER_OF_LANGUAGES_ASC),
+
+    /** Siehe {@link SortByContinentThenPopulationDesc}. */
+    CONTINENT_THEN_POPULATION_DESC(new SortByContinentThenPopulationDesc());
+
+    private final Comparator<Country> comparator;
+
+    CountryOrdering(Comparator<Country> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Gibt den Comparator zurück, der dieser Sortierreihenfolge entspricht.
+     */
+    public Comparator<Country> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Erkennt, ob der übergebene Comparator einer der bekannten Sortierreihenfolgen entspricht.
+     * {@code null} steht wie bei {@link java.util.List#sort(Comparator)} für die natürliche Ordnung.
+     *
+     * @param comparator Der zu prüfende Comparator.
+     * @return Die passende Sortierreihenfolge oder ein leeres Optional für unbekannte Comparatoren.
+     */
+    public static Optional<CountryOrdering> of(Comparator<? super Country> comparator) {
+        if (comparator == null || comparator == Comparator.naturalOrder()) {
+            return Optional.of(NAME);
+        }
+        // Die Klasse ist final, jede Instanz vergleicht also gleich
+        if (comparator instanceof SortByContinentThenPopulationDesc) {
+            return Optional.of(CONTINENT_THEN_POPULATION_DESC);
+        }
+        for (CountryOrdering ordering : values()) {
+            if (ordering.comparator == comparator) {
+                return Optional.of(ordering);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,384 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Abfragen und gruppierte Auswertungen über einer {@link CountryTable}.
+ *
+ * <p>Beim Erstellen werden einmalig Sekundärindizes aufgebaut: die Zeilen pro {@link Continent} und nach
+ * Bevölkerung, Fläche und UN-Beitritt sortierte Zeilen-Permutationen (pro Kontinent und gesamt). Damit sind
+ * Bereichsabfragen eine Binärsuche, Perzentile ein Arrayzugriff und die Anzahl Beitritte pro Jahrzehnt eine
+ * Binärsuche pro Jahrzehnt.
+ *
+ * <p>Summen, Minima und Maxima werden parallel in Blöcken berechnet. Jeder Block schreibt in eigene primitive
+ * Arrays, pro Zeile wird nichts alloziert.
+ *
+ * <p>Abfragen liefern Zeilenindizes der Tabelle; {@link CountryTable#toList(int[])} macht daraus Länder.
+ * Gleichwertige Zeilen stehen immer in aufsteigender Zeilenreihenfolge. Die Klasse ist nach dem Erstellen
+ * unveränderlich und threadsicher.
+ */
+public final class CountryQueryEngine {
+
+    private static final Continent[] CONTINENTS = Continent.values();
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    /**
+     * Die auswertbaren Kennzahlen eines Landes.
+     */
+    public enum Measure {
+        POPULATION, AREA, LANGUAGES
+    }
+
+    /**
+     * Ergebnis einer Auswertung. Bei {@code count == 0} sind Minimum und Maximum {@code NaN}.
+     */
+    public record Summary(long count, double sum, double min, double max) {
+
+        public double mean() {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+    }
+
+    private final CountryTable table;
+    private final int[] byPopulation;
+    private final int[] byArea;
+    private final int[] byAccession;
+    private final int accessionCount;
+    private final EnumMap<Continent, int[]> rowsByContinent = new EnumMap<>(Continent.class);
+    private final EnumMap<Continent, int[]> populationByContinent = new EnumMap<>(Continent.class);
+    private final EnumMap<Continent, int[]> areaByContinent = new EnumMap<>(Continent.class);
+    private final EnumMap<CountryOrdering, int[]> orderings = new EnumMap<>(CountryOrdering.class);
+
+    /**
+     * Baut die Indizes über der Tabelle auf.
+     */
+    public CountryQueryEngine(CountryTable table) {
+        this.table = table;
+        int size = table.size();
+        this.byPopulation = table.sortedPermutation(CountryOrdering.POPULATION_ASC);
+        this.byAccession = table.sortedPermutation(CountryOrdering.UN_ACCESSION_DATE_ASC);
+        long[] areaKeys = new long[size];
+        for (int row = 0; row < size; row++) {
+            areaKeys[row] = RadixSortEngine.areaKey(table.area(row));
+        }
+        this.byArea = RadixSortEngine.sortedOrder(size, null, 0, areaKeys);
+
+        int withAccession = size;
+        while (withAccession > 0 && table.accessionEpochDay(byAccession[withAccession - 1]) == CountryTable.NO_ACCESSION) {
+            withAccession--;
+        }
+        this.accessionCount = withAccession;
+
+        int[] identity = table.identityPermutation();
+        partition(identity, rowsByContinent);
+        partition(byPopulation, populationByContinent);
+        partition(byArea, areaByContinent);
+        orderings.put(CountryOrdering.POPULATION_ASC, byPopulation);
+        orderings.put(CountryOrdering.UN_ACCESSION_DATE_ASC, byAccession);
+    }
+
+    // Verteilt die Zeilen stabil auf die Kontinente; Zeilen ohne Kontinent fallen weg
+    private void partition(int[] rows, EnumMap<Continent, int[]> target) {
+        int[] counts = new int[CONTINENTS.length];
+        for (int row : rows) {
+            Continent continent = table.continent(row);
+            if (continent != null) {
+                counts[continent.ordinal()]++;
+            }
+        }
+        int[][] partitions = new int[CONTINENTS.length][];
+        for (Continent continent : CONTINENTS) {
+            partitions[continent.ordinal()] = new int[counts[continent.ordinal()]];
+        }
+        int[] positions = new int[CONTINENTS.length];
+        for (int row : rows) {
+            Continent continent = table.continent(row);
+            if (continent != null) {
+                partitions[continent.ordinal()][positions[continent.ordinal()]++] = row;
+            }
+        }
+        for (Continent continent : CONTINENTS) {
+            target.put(continent, partitions[continent.ordinal()]);
+        }
+    }
+
+    public CountryTable table() {
+        return table;
+    }
+
+    /**
+     * Gibt die Zeilen eines Kontinents in Tabellenreihenfolge zurück.
+     */
+    public int[] continent(Continent continent) {
+        return rowsByContinent.get(continent).clone();
+    }
+
+    /**
+     * Gibt alle Zeilen mit {@code min <= Bevölkerung <= max} aufsteigend nach Bevölkerung zurück.
+     */
+    public int[] populationBetween(long min, long max) {
+        int from = lowerBound(byPopulation, byPopulation.length, row -> Long.compare(table.population(row), min) >= 0);
+        int to = lowerBound(byPopulation, byPopulation.length, row -> Long.compare(table.population(row), max) > 0);
+        return Arrays.copyOfRange(byPopulation, from, Math.max(from, to));
+    }
+
+    /**
+     * Gibt alle Zeilen mit {@code min <= Fläche <= max} aufsteigend nach Fläche zurück
+     * (Ordnung von {@link Double#compare(double, double)}).
+     */
+    public int[] areaBetween(double min, double max) {
+        int from = lowerBound(byArea, byArea.length, row -> Double.compare(table.area(row), min) >= 0);
+        int to = lowerBound(byArea, byArea.length, row -> Double.compare(table.area(row), max) > 0);
+        return Arrays.copyOfRange(byArea, from, Math.max(from, to));
+    }
+
+    /**
+     * Gibt alle Zeilen mit einem UN-Beitritt zwischen den beiden Daten (inklusive) aufsteigend nach Datum zurück.
+     */
+    public int[] accessionBetween(LocalDate from, LocalDate to) {
+        return Arrays.copyOfRange(byAccession, accessionLowerBound(from.toEpochDay()),
+                Math.max(accessionLowerBound(from.toEpochDay()), accessionLowerBound(to.toEpochDay() + 1)));
+    }
+
+    /**
+     * Ordnet die Zeilen stabil nach dem Comparator; gleichwertige Zeilen stehen in aufsteigender Zeilenreihenfolge.
+     * Mehrfach übergebene Zeilen kommen im Ergebnis ebenso oft vor.
+     * Für die bekannten Reihenfolgen ({@link CountryOrdering}) wird bei grossen Teilmengen die einmal sortierte
+     * Gesamtpermutation gefiltert, sonst werden die Zeilen direkt auf den Spalten sortiert.
+     */
+    public int[] orderBy(int[] rows, Comparator<? super Country> comparator) {
+        int[] result = rows.clone();
+        Arrays.sort(result);
+        Optional<CountryOrdering> ordering = CountryOrdering.of(comparator);
+        if (ordering.isEmpty()) {
+            Country[] countries = new Country[result.length];
+            int[] positions = new int[result.length];
+            for (int i = 0; i < result.length; i++) {
+                countries[i] = table.get(result[i]);
+                positions[i] = i;
+            }
+            IndexSort.sort(positions, (i1, i2) -> comparator.compare(countries[i1], countries[i2]));
+            int[] sorted = new int[result.length];
+            for (int i = 0; i < positions.length; i++) {
+                sorted[i] = result[positions[i]];
+            }
+            return sorted;
+        }
+        // Filtern kostet O(n), Sortieren O(k log k)
+        if (result.length > table.size() / 8) {
+            // Pro Zeile zählen statt markieren, damit mehrfach übergebene Zeilen erhalten bleiben
+            int[] occurrences = new int[table.size()];
+            for (int row : result) {
+                occurrences[row]++;
+            }
+            int[] sorted = sortedPermutation(ordering.get());
+            int position = 0;
+            for (int row : sorted) {
+                for (int i = occurrences[row]; i > 0; i--) {
+                    result[position++] = row;
+                }
+            }
+            return result;
+        }
+        IndexSort.sort(result, 0, result.length, table.rowComparator(ordering.get()));
+        return result;
+    }
+
+    private synchronized int[] sortedPermutation(CountryOrdering ordering) {
+        return orderings.computeIfAbsent(ordering, table::sortedPermutation);
+    }
+
+    /**
+     * Wertet die Kennzahl über alle Zeilen aus.
+     */
+    public Summary summarize(Measure measure) {
+        Accumulator total = accumulate(measure);
+        return total.summary(CONTINENTS.length);
+    }
+
+    /**
+     * Wertet die Kennzahl pro Kontinent in einem parallelen Durchgang aus. Zeilen ohne Kontinent fehlen im Ergebnis.
+     */
+    public EnumMap<Continent, Summary> summarizeByContinent(Measure measure) {
+        Accumulator total = accumulate(measure);
+        EnumMap<Continent, Summary> result = new EnumMap<>(Continent.class);
+        for (Continent continent : CONTINENTS) {
+            result.put(continent, total.summary(continent.ordinal()));
+        }
+        return result;
+    }
+
+    /**
+     * Gibt das Perzentil (Nearest-Rank) der Bevölkerung oder Fläche zurück, z.B. {@code percentile(AREA, EUROPA, 0.9)}.
+     *
+     * @param continent Der Kontinent oder {@code null} für alle Zeilen.
+     * @param quantile  Wert zwischen 0 und 1.
+     * @return Der Wert des Perzentils oder {@code NaN}, falls keine Zeilen vorhanden sind.
+     */
+    public double percentile(Measure measure, Continent continent, double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Das Quantil muss zwischen 0 und 1 liegen: " + quantile);
+        }
+        int[] sorted = switch (measure) {
+            case POPULATION -> continent != null ? populationByContinent.get(continent) : byPopulation;
+            case AREA -> continent != null ? areaByContinent.get(continent) : byArea;
+            case LANGUAGES -> throw new IllegalArgumentException("Kein sortierter Index für " + measure);
+        };
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.max(1, Math.ceil(quantile * sorted.length));
+        int row = sorted[rank - 1];
+        return measure == Measure.POPULATION ? table.population(row) : table.area(row);
+    }
+
+    /**
+     * Zählt die UN-Beitritte pro Jahrzehnt (z.B. 1940, 1950, ...). Länder ohne Beitrittsdatum fehlen.
+     */
+    public NavigableMap<Integer, Long> countByAccessionDecade() {
+        NavigableMap<Integer, Long> result = new TreeMap<>();
+        if (accessionCount == 0) {
+            return result;
+        }
+        int firstDecade = decadeOf(table.accessionEpochDay(byAccession[0]));
+        int lastDecade = decadeOf(table.accessionEpochDay(byAccession[accessionCount - 1]));
+        int from = 0;
+        for (int decade = firstDecade; decade <= lastDecade; decade += 10) {
+            int to = accessionLowerBound(LocalDate.of(decade + 10, 1, 1).toEpochDay());
+            if (to > from) {
+                result.put(decade, (long) (to - from));
+            }
+            from = to;
+        }
+        return result;
+    }
+
+    private static int decadeOf(int epochDay) {
+        return Math.floorDiv(LocalDate.ofEpochDay(epochDay).getYear(), 10) * 10;
+    }
+
+    private int accessionLowerBound(long epochDay) {
+        return lowerBound(byAccession, accessionCount, row -> table.accessionEpochDay(row) >= epochDay);
+    }
+
+    /**
+     * Erste Position in {@code [0, length)}, ab der die Bedingung gilt; die Bedingung muss monoton sein.
+     */
+    private static int lowerBound(int[] sorted, int length, RowPredicate predicate) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (predicate.test(sorted[middle])) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    private interface RowPredicate {
+        boolean test(int row);
+    }
+
+    private Accumulator accumulate(Measure measure) {
+        int blocks = (table.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return IntStream.range(0, blocks).parallel()
+                .mapToObj(block -> {
+                    Accumulator accumulator = new Accumulator();
+                    accumulator.add(table, measure, block * BLOCK_SIZE, Math.min(table.size(), (block + 1) * BLOCK_SIZE));
+                    return accumulator;
+                })
+                .reduce(Accumulator::merge)
+                .orElseGet(Accumulator::new);
+    }
+
+    /**
+     * Summen pro Kontinent-Ordinalzahl; der letzte Eintrag fasst alle Kontinente zusammen.
+     * Ganzzahlige Kennzahlen werden exakt als {@code long} summiert.
+     */
+    private static final class Accumulator {
+
+        private static final int TOTAL = CONTINENTS.length;
+
+        private final long[] counts = new long[TOTAL + 1];
+        private final long[] longSums = new long[TOTAL + 1];
+        private final double[] doubleSums = new double[TOTAL + 1];
+        private final double[] minima = new double[TOTAL + 1];
+        private final double[] maxima = new double[TOTAL + 1];
+
+        Accumulator() {
+            Arrays.fill(minima, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxima, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(CountryTable table, Measure measure, int from, int to) {
+            for (int row = from; row < to; row++) {
+                Continent continent = table.continent(row);
+                double value;
+                switch (measure) {
+                    case POPULATION -> {
+                        long population = table.population(row);
+                        add(continent, population);
+                        value = population;
+                    }
+                    case LANGUAGES -> {
+                        int count = table.languageCount(row);
+                        add(continent, count);
+                        value = count;
+                    }
+                    default -> {
+                        value = table.area(row);
+                        doubleSums[TOTAL] += value;
+                        if (continent != null) {
+                            doubleSums[continent.ordinal()] += value;
+                        }
+                    }
+                }
+                counts[TOTAL]++;
+                minima[TOTAL] = Math.min(minima[TOTAL], value);
+                maxima[TOTAL] = Math.max(maxima[TOTAL], value);
+                if (continent != null) {
+                    int bucket = continent.ordinal();
+                    counts[bucket]++;
+                    minima[bucket] = Math.min(minima[bucket], value);
+                    maxima[bucket] = Math.max(maxima[bucket], value);
+                }
+            }
+        }
+
+        private void add(Continent continent, long value) {
+            longSums[TOTAL] += value;
+            if (continent != null) {
+                longSums[continent.ordinal()] += value;
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int bucket = 0; bucket <= TOTAL; bucket++) {
+                counts[bucket] += other.counts[bucket];
+                longSums[bucket] += other.longSums[bucket];
+                doubleSums[bucket] += other.doubleSums[bucket];
+                minima[bucket] = Math.min(minima[bucket], other.minima[bucket]);
+                maxima[bucket] = Math.max(maxima[bucket], other.maxima[bucket]);
+            }
+            return this;
+        }
+
+        Summary summary(int bucket) {
+            if (counts[bucket] == 0) {
+                return new Summary(0, 0, Double.NaN, Double.NaN);
+            }
+            return new Summary(counts[bucket], longSums[bucket] + doubleSums[bucket], minima[bucket], maxima[bucket]);
+        }
+    }
+}
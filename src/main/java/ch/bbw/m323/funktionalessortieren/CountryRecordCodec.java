@@ -0,0 +1,138 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kodiert ein {@link Country} als kompakten Binärdatensatz mit fester Kopfzeile.
+ *
+ * <pre>
+ * Offset  Typ     Inhalt
+ *  0      int     Länge des ganzen Datensatzes in Bytes
+ *  4      long    Bevölkerung
+ * 12      double  Fläche
+ * 20      int     UN-Beitritt als Epoch-Day, {@link CountryTable#NO_ACCESSION} falls unbekannt
+ * 24      byte    Kontinent-Ordinalzahl, -1 falls unbekannt
+ * 25      byte    Anzahl Sprachen, -1 falls keine Sprachliste
+ * 26      short   Länge des Namens in UTF-8-Bytes, -1 falls kein Name
+ * 28      short[] Sprach-Ids aus dem {@link LanguageDictionary}
+ *  ...    byte[]  Name in UTF-8
+ * </pre>
+ */
+final class CountryRecordCodec {
+
+    static final int LENGTH_OFFSET = 0;
+    static final int POPULATION_OFFSET = 4;
+    static final int AREA_OFFSET = 12;
+    static final int ACCESSION_OFFSET = 20;
+    static final int CONTINENT_OFFSET = 24;
+    static final int LANGUAGE_COUNT_OFFSET = 25;
+    static final int NAME_LENGTH_OFFSET = 26;
+    static final int LANGUAGES_OFFSET = 28;
+
+    /** Grösse des festen Kopfteils eines Datensatzes. */
+    static final int HEADER_SIZE = LANGUAGES_OFFSET;
+
+    private static final Continent[] CONTINENTS = Continent.values();
+
+    private CountryRecordCodec() {
+    }
+
+    /**
+     * Gibt den UTF-8-kodierten Namen zurück oder {@code null}, falls das Land keinen Namen hat.
+     */
+    static byte[] encodeName(Country country) {
+        String name = country.getName();
+        if (name == null) {
+            return null;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Name ist zu lang für das Binärformat: " + bytes.length + " Bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Berechnet die Länge des Datensatzes in Bytes.
+     */
+    static int recordLength(Country country, byte[] nameBytes) {
+        List<String> languages = country.getNationalLanguages();
+        int languageCount = languages != null ? languages.size() : 0;
+        return HEADER_SIZE + languageCount * Short.BYTES + (nameBytes != null ? nameBytes.length : 0);
+    }
+
+    /**
+     * Schreibt den Datensatz an die aktuelle Position des Buffers. Alle Prüfungen laufen vor dem ersten Schreiben;
+     * schlägt die Kodierung fehl, bleibt der Buffer unverändert.
+     *
+     * @param nameBytes Ergebnis von {@link #encodeName(Country)}.
+     * @throws IllegalArgumentException Falls das Land nicht im Binärformat dargestellt werden kann.
+     */
+    static void encode(Country country, byte[] nameBytes, ByteBuffer target, LanguageDictionary dictionary) {
+        List<String> languages = country.getNationalLanguages();
+        if (languages != null && languages.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Zu viele Sprachen für das Binärformat: " + languages.size());
+        }
+        int epochDay = CountryTable.toEpochDay(country.getAccessionToUN());
+        short[] languageIds = languages != null ? new short[languages.size()] : null;
+        if (languages != null) {
+            int i = 0;
+            for (String language : languages) {
+                int id = dictionary.idOf(language);
+                if (id > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Zu viele verschiedene Sprachen für das Binärformat");
+                }
+                languageIds[i++] = (short) id;
+            }
+        }
+        target.putInt(recordLength(country, nameBytes));
+        target.putLong(country.getPopulation());
+        target.putDouble(country.getAreaInSquareKm());
+        target.putInt(epochDay);
+        target.put(country.getContinent() != null ? (byte) country.getContinent().ordinal() : CountryTable.NO_CONTINENT);
+        target.put(languageIds != null ? (byte) languageIds.length : -1);
+        target.putShort(nameBytes != null ? (short) nameBytes.length : -1);
+        if (languageIds != null) {
+            for (short id : languageIds) {
+                target.putShort(id);
+            }
+        }
+        if (nameBytes != null) {
+            target.put(nameBytes);
+        }
+    }
+
+    /**
+     * Liest den Datensatz ab der absoluten Position {@code offset}, ohne die Position des Buffers zu verändern.
+     */
+    static Country decode(ByteBuffer source, int offset, LanguageDictionary dictionary) {
+        int languageCount = source.get(offset + LANGUAGE_COUNT_OFFSET);
+        int nameLength = source.getShort(offset + NAME_LENGTH_OFFSET);
+        List<String> languages = null;
+        if (languageCount >= 0) {
+            languages = new ArrayList<>(languageCount);
+            for (int i = 0; i < languageCount; i++) {
+                languages.add(dictionary.language(source.getShort(offset + LANGUAGES_OFFSET + i * Short.BYTES)));
+            }
+        }
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            source.get(offset + LANGUAGES_OFFSET + Math.max(languageCount, 0) * Short.BYTES, bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        byte continent = source.get(offset + CONTINENT_OFFSET);
+        int epochDay = source.getInt(offset + ACCESSION_OFFSET);
+        return new Country(
+                name,
+                continent != CountryTable.NO_CONTINENT ? CONTINENTS[continent] : null,
+                source.getLong(offset + POPULATION_OFFSET),
+                source.getDouble(offset + AREA_OFFSET),
+                epochDay != CountryTable.NO_ACCESSION ? LocalDate.ofEpochDay(epochDay) : null,
+                languages);
+    }
+}
@@ -0,0 +1,141 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Flyweight-Sicht auf einen Datensatz im Binärformat ({@link CountryRecordCodec}).
+ * Die Getter lesen direkt aus dem darunterliegenden {@link ByteBuffer}; es wird kein {@link Country}
+ * erzeugt, solange nicht {@link #toCountry()} aufgerufen wird. Mit {@link #moveTo(int)} lässt sich
+ * dieselbe Instanz für beliebig viele Datensätze wiederverwenden.
+ */
+public final class CountryRecordView {
+
+    private static final Continent[] CONTINENTS = Continent.values();
+
+    private final ByteBuffer buffer;
+    private final LanguageDictionary dictionary;
+    private int offset;
+
+    CountryRecordView(ByteBuffer buffer, LanguageDictionary dictionary, int offset) {
+        this.buffer = buffer;
+        this.dictionary = dictionary;
+        this.offset = offset;
+    }
+
+    /**
+     * Positioniert die Sicht auf den Datensatz an der absoluten Position {@code offset}.
+     */
+    public CountryRecordView moveTo(int offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Gibt die Länge des Datensatzes in Bytes zurück.
+     */
+    public int length() {
+        return buffer.getInt(offset + CountryRecordCodec.LENGTH_OFFSET);
+    }
+
+    public long population() {
+        return buffer.getLong(offset + CountryRecordCodec.POPULATION_OFFSET);
+    }
+
+    public double area() {
+        return buffer.getDouble(offset + CountryRecordCodec.AREA_OFFSET);
+    }
+
+    /**
+     * Gibt das UN-Beitrittsdatum als Epoch-Day zurück oder {@link CountryTable#NO_ACCESSION}.
+     */
+    public int accessionEpochDay() {
+        return buffer.getInt(offset + CountryRecordCodec.ACCESSION_OFFSET);
+    }
+
+    public LocalDate accessionToUN() {
+        int epochDay = accessionEpochDay();
+        return epochDay != CountryTable.NO_ACCESSION ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    public Continent continent() {
+        byte ordinal = buffer.get(offset + CountryRecordCodec.CONTINENT_OFFSET);
+        return ordinal != CountryTable.NO_CONTINENT ? CONTINENTS[ordinal] : null;
+    }
+
+    public boolean hasLanguages() {
+        return buffer.get(offset + CountryRecordCodec.LANGUAGE_COUNT_OFFSET) >= 0;
+    }
+
+    /**
+     * Gibt die Anzahl Sprachen zurück; eine fehlende Sprachliste zählt als 0.
+     */
+    public int languageCount() {
+        return Math.max(0, buffer.get(offset + CountryRecordCodec.LANGUAGE_COUNT_OFFSET));
+    }
+
+    public int languageId(int index) {
+        return buffer.getShort(offset + CountryRecordCodec.LANGUAGES_OFFSET + index * Short.BYTES);
+    }
+
+    public String language(int index) {
+        return dictionary.language(languageId(index));
+    }
+
+    /**
+     * Prüft, ob das Land die Sprache spricht, ohne die Sprachliste zu materialisieren.
+     */
+    public boolean speaks(String language) {
+        int id = dictionary.find(language);
+        if (id < 0) {
+            return false;
+        }
+        for (int i = 0, count = languageCount(); i < count; i++) {
+            if (languageId(i) == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasName() {
+        return nameLength() >= 0;
+    }
+
+    /**
+     * Gibt die Länge des Namens in UTF-8-Bytes zurück oder -1, falls kein Name gesetzt ist.
+     */
+    public int nameLength() {
+        return buffer.getShort(offset + CountryRecordCodec.NAME_LENGTH_OFFSET);
+    }
+
+    /**
+     * Dekodiert den Namen. Erzeugt einen neuen String.
+     */
+    public String name() {
+        int length = nameLength();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset + CountryRecordCodec.LANGUAGES_OFFSET + languageCount() * Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Materialisiert den Datensatz als neues {@link Country}.
+     */
+    public Country toCountry() {
+        return CountryRecordCodec.decode(buffer, offset, dictionary);
+    }
+
+    @Override
+    public String toString() {
+        return "CountryRecordView{offset=" + offset + ", name='" + name() + "'}";
+    }
+}
@@ -0,0 +1,259 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Threadsicheres Register von {@link CountrySnapshot}s mit sortierten Bereichsabfragen.
+ *
+ * <p>Neben der Zuordnung Name → Snapshot führt das Register je einen {@link ConcurrentSkipListMap}-Index
+ * nach Bevölkerung, Fläche und UN-Beitrittstag. Eine Bereichsabfrage ist ein {@code subMap}-Durchlauf
+ * und liefert die Treffer direkt in aufsteigender Reihenfolge, ohne nachträgliches Sortieren. Länder mit
+ * gleichem Schlüssel stehen in der Reihenfolge ihrer ersten Registrierung.
+ *
+ * <p>Lesende Zugriffe nehmen keine Sperren. Schreibzugriffe auf dasselbe Land werden über
+ * {@link ConcurrentHashMap#compute} serialisiert, Schreibzugriffe auf verschiedene Länder laufen parallel.
+ * Jeder gelieferte Snapshot ist in sich konsistent; eine Bereichsabfrage, die gleichzeitig zu Änderungen
+ * läuft, ist jedoch wie die Iteratoren von {@link ConcurrentSkipListMap} nur schwach konsistent. Ein Land,
+ * dessen Wert im abgefragten Index sich dabei nicht ändert, wird trotzdem genau einmal geliefert, im alten
+ * oder im neuen Stand.
+ */
+public final class CountryRegistry {
+
+    // Indexwerte; eine Ordnung der longs entspricht der Ordnung des Feldes
+    private static final ToLongFunction<CountrySnapshot> POPULATION = CountrySnapshot::population;
+    private static final ToLongFunction<CountrySnapshot> AREA = snapshot -> areaKey(snapshot.areaInSquareKm());
+    private static final ToLongFunction<CountrySnapshot> ACCESSION = snapshot -> snapshot.accessionToUN() != null
+            ? snapshot.accessionToUN().toEpochDay() : Long.MIN_VALUE;
+
+    private final ConcurrentMap<String, Registered> byName = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<IndexKey, Registered> byPopulation = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<IndexKey, Registered> byArea = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<IndexKey, Registered> byAccession = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong nextVersion = new AtomicLong();
+
+    public CountryRegistry() {
+    }
+
+    /**
+     * Erstellt ein Register mit Snapshots der übergebenen Länder.
+     *
+     * @throws IllegalArgumentException Falls zwei Länder denselben Namen haben; der Name ist der Schlüssel des
+     *                                  Registers, ein späteres Land würde das frühere sonst stillschweigend ersetzen.
+     */
+    public CountryRegistry(Collection<Country> countries) {
+        for (Country country : countries) {
+            if (put(CountrySnapshot.of(country)) != null) {
+                throw new IllegalArgumentException("Doppelter Name im Register: " + country.getName());
+            }
+        }
+    }
+
+    /**
+     * Fügt einen Snapshot hinzu oder ersetzt den bisherigen Stand des gleichnamigen Landes.
+     *
+     * @return Der bisherige Stand oder {@code null}.
+     */
+    public CountrySnapshot put(CountrySnapshot snapshot) {
+        Registered[] previous = new Registered[1];
+        byName.compute(snapshot.name(), (name, old) -> {
+            previous[0] = old;
+            return register(old, snapshot);
+        });
+        if (previous[0] == null) {
+            return null;
+        }
+        unindex(previous[0]);
+        return previous[0].snapshot;
+    }
+
+    /**
+     * Ändert den Stand eines registrierten Landes atomar, z.B. {@code update("Schweiz", s -> s.withPopulation(9_000_000))}.
+     * Die Funktion wird genau einmal unter der Sperre des Eintrags aufgerufen und darf den Namen nicht ändern.
+     *
+     * @return Der neue Stand oder {@code null}, falls das Land nicht registriert ist.
+     */
+    public CountrySnapshot update(String name, UnaryOperator<CountrySnapshot> change) {
+        Registered[] previous = new Registered[1];
+        Registered updated = byName.computeIfPresent(name, (key, old) -> {
+            CountrySnapshot snapshot = change.apply(old.snapshot);
+            if (!snapshot.name().equals(key)) {
+                throw new IllegalArgumentException("Der Name kann nicht geändert werden: " + key + " -> " + snapshot.name());
+            }
+            previous[0] = old;
+            return register(old, snapshot);
+        });
+        if (updated == null) {
+            return null;
+        }
+        unindex(previous[0]);
+        return updated.snapshot;
+    }
+
+    /**
+     * Entfernt das Land mit dem Namen.
+     *
+     * @return {@code true}, falls das Land registriert war.
+     */
+    public boolean remove(String name) {
+        boolean[] removed = new boolean[1];
+        byName.computeIfPresent(name, (key, old) -> {
+            unindex(old);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    public CountrySnapshot get(String name) {
+        Registered registered = byName.get(name);
+        return registered != null ? registered.snapshot : null;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    /**
+     * Gibt alle Länder mit {@code min <= population <= max} aufsteigend nach Bevölkerung zurück.
+     */
+    public List<CountrySnapshot> populationBetween(long min, long max) {
+        return range(byPopulation, POPULATION, min, max);
+    }
+
+    /**
+     * Gibt alle Länder mit {@code min <= area <= max} aufsteigend nach Fläche zurück.
+     * Ordnung und Gleichheit entsprechen {@link Double#compare(double, double)}.
+     */
+    public List<CountrySnapshot> areaBetween(double min, double max) {
+        return range(byArea, AREA, areaKey(min), areaKey(max));
+    }
+
+    /**
+     * Gibt alle Länder mit einem UN-Beitritt zwischen den beiden Daten (inklusive) aufsteigend nach
+     * Beitrittsdatum zurück. Länder ohne Beitrittsdatum sind nie enthalten.
+     */
+    public List<CountrySnapshot> accessionBetween(LocalDate from, LocalDate to) {
+        return range(byAccession, ACCESSION, from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Gibt alle Länder aufsteigend nach Bevölkerung zurück.
+     */
+    public List<CountrySnapshot> sortedByPopulation() {
+        return values(byPopulation, POPULATION);
+    }
+
+    /**
+     * Trägt den neuen Stand in die Indizes ein. Der alte Stand bleibt eingetragen, bis der neue über
+     * {@link #byName} sichtbar ist; der Aufrufer entfernt ihn erst nach {@code compute}. So steht immer
+     * mindestens ein Stand jedes Landes im Index, veraltete filtert {@link #values} heraus.
+     */
+    private Registered register(Registered old, CountrySnapshot snapshot) {
+        Registered registered = new Registered(old != null ? old.id : nextId.getAndIncrement(), nextVersion.getAndIncrement(), snapshot);
+        index(registered);
+        return registered;
+    }
+
+    private void index(Registered registered) {
+        byPopulation.put(registered.key(POPULATION), registered);
+        byArea.put(registered.key(AREA), registered);
+        if (registered.snapshot.accessionToUN() != null) {
+            byAccession.put(registered.key(ACCESSION), registered);
+        }
+    }
+
+    private void unindex(Registered registered) {
+        byPopulation.remove(registered.key(POPULATION));
+        byArea.remove(registered.key(AREA));
+        if (registered.snapshot.accessionToUN() != null) {
+            byAccession.remove(registered.key(ACCESSION));
+        }
+    }
+
+    private List<CountrySnapshot> range(ConcurrentSkipListMap<IndexKey, Registered> index, ToLongFunction<CountrySnapshot> field,
+                                        long min, long max) {
+        if (min > max) {
+            return List.of();
+        }
+        return values(index.subMap(IndexKey.lowest(min), true, IndexKey.highest(max), true), field);
+    }
+
+    /**
+     * Liefert pro Land höchstens einen Stand in der Ordnung des Index.
+     *
+     * <p>Während einer Änderung stehen kurz beide Stände im Index, bei gleichem Wert direkt nacheinander
+     * (gleiche Id, steigende Version). Der Iterator liest den Nachfolger eines Eintrags im Voraus und kann deshalb
+     * einen gerade dahinter eingefügten neuen Stand verpassen. Ist der gelesene Stand veraltet, hat der aktuelle
+     * aber denselben Wert, gehört er an genau diese Stelle und wird hier geliefert; weitere Stände derselben Id
+     * werden übersprungen.
+     */
+    private List<CountrySnapshot> values(NavigableMap<IndexKey, Registered> entries, ToLongFunction<CountrySnapshot> field) {
+        List<CountrySnapshot> result = new ArrayList<>();
+        long lastId = -1;
+        for (Registered registered : entries.values()) {
+            if (registered.id == lastId) {
+                continue;
+            }
+            Registered current = byName.get(registered.snapshot.name());
+            if (current != null && current.id == registered.id
+                    && field.applyAsLong(current.snapshot) == field.applyAsLong(registered.snapshot)) {
+                result.add(current.snapshot);
+                lastId = registered.id;
+            }
+        }
+        return result;
+    }
+
+    // Vorzeichenbehaftete Variante von RadixSortEngine.areaKey, damit long-Vergleiche der Double-Ordnung folgen
+    private static long areaKey(double area) {
+        return RadixSortEngine.areaKey(area) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Ein registrierter Stand mit der bei der ersten Registrierung vergebenen Id und einer fortlaufenden Version.
+     */
+    private record Registered(long id, long version, CountrySnapshot snapshot) {
+
+        IndexKey key(ToLongFunction<CountrySnapshot> field) {
+            return new IndexKey(field.applyAsLong(snapshot), id, version);
+        }
+    }
+
+    /**
+     * Indexschlüssel: Feldwert, bei Gleichheit die Id. Die Version unterscheidet einen neuen Stand mit
+     * gleichem Feldwert vom alten, damit beide kurzzeitig nebeneinander im Index stehen können.
+     */
+    private record IndexKey(long key, long id, long version) implements Comparable<IndexKey> {
+
+        static IndexKey lowest(long key) {
+            return new IndexKey(key, Long.MIN_VALUE, Long.MIN_VALUE);
+        }
+
+        static IndexKey highest(long key) {
+            return new IndexKey(key, Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(IndexKey other) {
+            int result = Long.compare(key, other.key);
+            if (result == 0) {
+                result = Long.compare(id, other.id);
+            }
+            if (result == 0) {
+                result = Long.compare(version, other.version);
+            }
+            return result;
+        }
+    }
+}
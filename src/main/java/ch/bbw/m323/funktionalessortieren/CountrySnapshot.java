@@ -0,0 +1,54 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unveränderlicher Stand eines Landes, der ohne Synchronisation zwischen Threads geteilt werden kann.
+ *
+ * @param name              Der Name des Landes, dient in der {@link CountryRegistry} als Schlüssel.
+ * @param continent         Der Kontinent, kann {@code null} sein.
+ * @param population        Die Bevölkerungszahl.
+ * @param areaInSquareKm    Die Fläche in Quadratkilometern.
+ * @param accessionToUN     Das Beitrittsdatum zur UN, kann {@code null} sein.
+ * @param nationalLanguages Die Nationalsprachen als unveränderliche Liste, kann {@code null} sein.
+ */
+public record CountrySnapshot(String name, Continent continent, long population, double areaInSquareKm,
+                              LocalDate accessionToUN, List<String> nationalLanguages) {
+
+    public CountrySnapshot {
+        if (name == null) {
+            throw new IllegalArgumentException("Ein Land braucht einen Namen");
+        }
+        if (nationalLanguages != null) {
+            nationalLanguages = List.copyOf(nationalLanguages);
+        }
+    }
+
+    /**
+     * Erstellt einen Snapshot des aktuellen Zustands eines Landes.
+     */
+    public static CountrySnapshot of(Country country) {
+        return new CountrySnapshot(country.getName(), country.getContinent(), country.getPopulation(),
+                country.getAreaInSquareKm(), country.getAccessionToUN(), country.getNationalLanguages());
+    }
+
+    public CountrySnapshot withPopulation(long population) {
+        return new CountrySnapshot(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+    }
+
+    public CountrySnapshot withAreaInSquareKm(double areaInSquareKm) {
+        return new CountrySnapshot(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+    }
+
+    public CountrySnapshot withAccessionToUN(LocalDate accessionToUN) {
+        return new CountrySnapshot(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+    }
+
+    /**
+     * Erstellt ein neues, veränderbares {@code Country} mit diesem Stand.
+     */
+    public Country toCountry() {
+        return new Country(name, continent, population, areaInSquareKm, accessionToUN, nationalLanguages);
+    }
+}
@@ -0,0 +1,240 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kommandozeilenwerkzeug: Länder einlesen, nach einer oder mehreren Sortierangaben sortieren und als CSV
+ * ausgeben.
+ *
+ * <pre>
+ * java -cp ... ch.bbw.m323.funktionalessortieren.CountrySortCli --generate 1000000 \
+ *     --sort "continent, population desc" --output kontinente.csv \
+ *     --sort "area desc" --output flaeche.csv
+ * </pre>
+ *
+ * <p>Die Länder werden einmal in eine {@link CountryTable} eingelesen; alle Sortierungen arbeiten auf deren
+ * Spalten und werden parallel berechnet ({@link SortSpec#sortedPermutation(CountryTable)}), ohne die Länder zu
+ * kopieren. Geschrieben wird mit dem {@link CountryCsvWriter}. Am Ende werden Zeilen/s und MB/s jeder Phase auf
+ * die Fehlerausgabe geschrieben, damit die Standardausgabe nur CSV enthält.
+ */
+public final class CountrySortCli {
+
+    private static final String USAGE = """
+            Verwendung: CountrySortCli (--input <datei> [--format csv|binary] | --generate <anzahl>)
+                                       (--sort <angabe> [--output <datei>])...
+              --input     CSV- oder Binärdatei; '-' liest CSV von der Standardeingabe
+              --format    Format der Eingabe; ohne Angabe nach Dateiendung (.csv = CSV, sonst binär)
+              --generate  Generiert die Länder mit dem DataGenerator
+              --sort      Sortierangabe, z.B. "continent, population desc"; mehrfach möglich
+              --output    Zieldatei der vorangehenden Sortierung; ohne Angabe oder '-' die Standardausgabe
+                          (höchstens eine Sortierung darf auf die Standardausgabe schreiben)
+            """;
+
+    private static final String STDIO = "-";
+
+    private CountrySortCli() {
+    }
+
+    public static void main(String[] args) {
+        int status = run(args, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Führt das Werkzeug aus.
+     *
+     * @param log Ziel für Fehler und Messwerte.
+     * @return 0 bei Erfolg, 1 bei Fehlern beim Lesen oder Schreiben, 2 bei ungültigen Argumenten.
+     */
+    static int run(String[] args, PrintStream log) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            log.println("Fehler: " + e.getMessage());
+            log.print(USAGE);
+            return 2;
+        }
+        if (options == null) {
+            log.print(USAGE);
+            return 0;
+        }
+        try {
+            execute(options, log);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            log.println("Fehler: " + e.getMessage());
+            return 1;
+        } catch (IOException e) {
+            log.println("Fehler beim Lesen oder Schreiben: " + e);
+            return 1;
+        } catch (UncheckedIOException e) {
+            log.println("Fehler beim Lesen oder Schreiben: " + e.getCause());
+            return 1;
+        }
+    }
+
+    private static void execute(Options options, PrintStream log) throws IOException {
+        long start = System.nanoTime();
+        CountryTable table = ingest(options);
+        long ingested = System.nanoTime();
+        long inputBytes = options.input() != null && !options.input().equals(STDIO) ? Files.size(Path.of(options.input())) : 0;
+        report(log, "Einlesen", table.size(), inputBytes, ingested - start);
+
+        int[][] permutations = options.outputs().parallelStream()
+                .map(output -> output.spec().sortedPermutation(table))
+                .toArray(int[][]::new);
+        long sorted = System.nanoTime();
+        report(log, "Sortieren", (long) table.size() * permutations.length, 0, sorted - ingested);
+
+        long rows = 0;
+        long bytes = 0;
+        for (int i = 0; i < permutations.length; i++) {
+            String target = options.outputs().get(i).target();
+            CountryCsvWriter writer;
+            if (target.equals(STDIO)) {
+                // Die Standardausgabe wird nur geleert, nicht geschlossen
+                WritableByteChannel stdout = Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+                writer = new CountryCsvWriter(stdout);
+                writer.writeAll(table, permutations[i]);
+                writer.flush();
+            } else {
+                writer = CountryCsvWriter.create(Path.of(target));
+                try (CountryCsvWriter closing = writer) {
+                    closing.writeAll(table, permutations[i]);
+                }
+            }
+            rows += writer.getRecordCount();
+            bytes += writer.getBytesWritten();
+        }
+        long written = System.nanoTime();
+        report(log, "Schreiben", rows, bytes, written - sorted);
+        report(log, "Gesamt", rows, inputBytes + bytes, written - start);
+    }
+
+    private static CountryTable ingest(Options options) throws IOException {
+        if (options.input() == null) {
+            return DataGenerator.generateCountryTable(options.generate());
+        }
+        if (options.input().equals(STDIO)) {
+            return CountryTable.of(CountryCsvReader.read(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+        }
+        Path file = Path.of(options.input());
+        String format = options.format() != null ? options.format()
+                : file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? "csv" : "binary";
+        if (format.equals("csv")) {
+            return CountryTable.of(CountryCsvReader.read(file));
+        }
+        CountryBinaryReader reader = CountryBinaryReader.open(file);
+        return CountryTable.of(reader.countries().toList(), reader.dictionary());
+    }
+
+    private static void report(PrintStream log, String phase, long rows, long bytes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        StringBuilder line = new StringBuilder(String.format("%-10s %,14d Zeilen in %,8d ms %,14.0f Zeilen/s",
+                phase + ":", rows, nanos / 1_000_000, rows / seconds));
+        if (bytes > 0) {
+            line.append(String.format(" %,10.1f MB/s (%,.1f MB)", bytes / seconds / 1e6, bytes / 1e6));
+        }
+        log.println(line);
+    }
+
+    /**
+     * Eine Sortierung und ihr Ziel ({@code "-"} für die Standardausgabe).
+     */
+    private record Output(SortSpec spec, String target) {
+    }
+
+    private record Options(String input, String format, int generate, List<Output> outputs) {
+
+        /**
+         * Liest die Argumente; gibt {@code null} zurück, wenn nur die Hilfe verlangt wurde.
+         */
+        static Options parse(String[] args) {
+            String input = null;
+            String format = null;
+            int generate = 0;
+            List<Output> outputs = new ArrayList<>();
+            boolean outputGiven = false;
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                switch (option) {
+                    case "-h", "--help" -> {
+                        return null;
+                    }
+                    case "--input" -> input = value(args, ++i, option);
+                    case "--format" -> {
+                        format = value(args, ++i, option).toLowerCase(Locale.ROOT);
+                        if (!format.equals("csv") && !format.equals("binary")) {
+                            throw new IllegalArgumentException("Unbekanntes Format '" + format + "', erwartet csv oder binary");
+                        }
+                    }
+                    case "--generate" -> {
+                        String count = value(args, ++i, option);
+                        try {
+                            generate = Integer.parseInt(count);
+                        } catch (NumberFormatException e) {
+                            generate = -1;
+                        }
+                        if (generate <= 0) {
+                            throw new IllegalArgumentException("--generate erwartet eine positive Anzahl, nicht '" + count + "'");
+                        }
+                    }
+                    case "--sort" -> {
+                        outputs.add(new Output(SortSpec.parse(value(args, ++i, option)), STDIO));
+                        outputGiven = false;
+                    }
+                    case "--output" -> {
+                        if (outputs.isEmpty() || outputGiven) {
+                            throw new IllegalArgumentException("--output muss direkt auf ein --sort folgen");
+                        }
+                        int last = outputs.size() - 1;
+                        outputs.set(last, new Output(outputs.get(last).spec(), value(args, ++i, option)));
+                        outputGiven = true;
+                    }
+                    default -> throw new IllegalArgumentException("Unbekannte Option '" + option + "'");
+                }
+            }
+            if ((input == null) == (generate == 0)) {
+                throw new IllegalArgumentException("Genau eine von --input und --generate angeben");
+            }
+            if (format != null && input == null) {
+                throw new IllegalArgumentException("--format gilt nur zusammen mit --input");
+            }
+            if (STDIO.equals(input) && "binary".equals(format)) {
+                throw new IllegalArgumentException("Von der Standardeingabe wird nur CSV gelesen");
+            }
+            if (outputs.isEmpty()) {
+                throw new IllegalArgumentException("Mindestens ein --sort angeben");
+            }
+            // Mehrere CSV-Dokumente hintereinander liessen sich nicht mehr einlesen
+            if (outputs.stream().filter(output -> output.target().equals(STDIO)).count() > 1) {
+                throw new IllegalArgumentException("Höchstens eine Sortierung kann auf die Standardausgabe schreiben; "
+                        + "für die übrigen --output angeben");
+            }
+            return new Options(input, format, generate, List.copyOf(outputs));
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " erwartet einen Wert");
+            }
+            return args[index];
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR-Event für einen Sortieraufruf, aufgezeichnet von {@link SortInstrumentation}.
+ * Die Dauer ergibt sich aus Beginn und Ende des Events.
+ */
+@Name("ch.bbw.m323.funktionalessortieren.CountrySort")
+@Label("Country Sort")
+@Category({"Funktionales Sortieren"})
+@Description("Ein Sortieraufruf über Länder")
+@StackTrace(false)
+final class CountrySortEvent extends Event {
+
+    @Label("Comparator")
+    String comparator;
+
+    @Label("Verfahren")
+    String algorithm;
+
+    @Label("Anzahl Elemente")
+    int size;
+}
@@ -0,0 +1,440 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spaltenbasierte (Struct-of-Arrays) Darstellung einer Menge von Ländern.
+ * Jedes Attribut liegt in einem eigenen primitiven Array, wodurch beim Sortieren nur die
+ * benötigte Spalte gelesen wird und keine Getter-Aufrufe oder Zeiger-Verfolgung anfallen.
+ *
+ * <p>Sortiert wird nie die Tabelle selbst, sondern eine Permutation der Zeilenindizes
+ * ({@link #sortedPermutation(Comparator)}). Die Tabelle ist nach dem Erstellen unveränderlich.
+ *
+ * <ul>
+ *     <li>Bevölkerung als {@code long[]}</li>
+ *     <li>Fläche als {@code double[]}</li>
+ *     <li>UN-Beitritt als Epoch-Day {@code int[]} mit {@link #NO_ACCESSION} für fehlende Daten; Daten, deren
+ *     Epoch-Day nicht in einen {@code int} passt, werden abgelehnt ({@link #toEpochDay(LocalDate)})</li>
+ *     <li>Kontinent als {@code byte[]} mit der Ordinalzahl oder {@link #NO_CONTINENT}</li>
+ *     <li>Sprachen als Ids aus einem {@link LanguageDictionary}</li>
+ * </ul>
+ */
+public final class CountryTable {
+
+    /** Markiert ein fehlendes UN-Beitrittsdatum in {@link #accessionEpochDay(int)}. */
+    public static final int NO_ACCESSION = Integer.MIN_VALUE;
+
+    /** Markiert einen fehlenden Kontinent in der Kontinent-Spalte. */
+    public static final byte NO_CONTINENT = -1;
+
+    private static final Continent[] CONTINENTS = Continent.values();
+
+    /** Anzahl Kontinent-Ränge inklusive des Rangs für fehlende Kontinente. */
+    static final int CONTINENT_BUCKETS = CONTINENTS.length + 1;
+
+    private final int size;
+    private final String[] names;
+    private final byte[] continents;
+    private final long[] populations;
+    private final double[] areas;
+    private final int[] accessionEpochDays;
+    private final int[] languageOffsets;
+    private final int[] languageIds;
+    private final BitSet missingLanguages;
+    private final LanguageDictionary dictionary;
+
+    // Werden beim ersten Sortieren nach Name angelegt; volatile, damit parallele Sortierungen nur fertige Arrays sehen
+    private volatile NameSortKey[] nameSortKeys;
+    private volatile int[] nameRanks;
+
+    CountryTable(String[] names, byte[] continents, long[] populations, double[] areas, int[] accessionEpochDays,
+                 int[] languageOffsets, int[] languageIds, BitSet missingLanguages, LanguageDictionary dictionary) {
+        this.size = names.length;
+        this.names = names;
+        this.continents = continents;
+        this.populations = populations;
+        this.areas = areas;
+        this.accessionEpochDays = accessionEpochDays;
+        this.languageOffsets = languageOffsets;
+        this.languageIds = languageIds;
+        this.missingLanguages = missingLanguages;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Erstellt eine Tabelle aus einer Liste von Ländern mit einem eigenen Sprachwörterbuch.
+     */
+    public static CountryTable of(List<Country> countries) {
+        return of(countries, new LanguageDictionary());
+    }
+
+    /**
+     * Erstellt eine Tabelle aus einer Liste von Ländern.
+     *
+     * @param countries  Die Länder; {@code null}-Elemente sind nicht erlaubt.
+     * @param dictionary Das Wörterbuch, in das die Sprachen eingetragen werden.
+     * @throws IllegalArgumentException Falls ein UN-Beitrittsdatum nicht dargestellt werden kann
+     *                                  ({@link #toEpochDay(LocalDate)}).
+     */
+    public static CountryTable of(List<Country> countries, LanguageDictionary dictionary) {
+        int size = countries.size();
+        String[] names = new String[size];
+        byte[] continents = new byte[size];
+        long[] populations = new long[size];
+        double[] areas = new double[size];
+        int[] accessionEpochDays = new int[size];
+        int[] languageOffsets = new int[size + 1];
+        int[] languageIds = new int[Math.max(16, size * 2)];
+        BitSet missingLanguages = new BitSet();
+
+        int row = 0;
+        int languageCount = 0;
+        for (Country country : countries) {
+            names[row] = country.getName();
+            continents[row] = country.getContinent() != null ? (byte) country.getContinent().ordinal() : NO_CONTINENT;
+            populations[row] = country.getPopulation();
+            areas[row] = country.getAreaInSquareKm();
+            accessionEpochDays[row] = toEpochDay(country.getAccessionToUN());
+            List<String> languages = country.getNationalLanguages();
+            if (languages == null) {
+                missingLanguages.set(row);
+            } else {
+                if (languageCount + languages.size() > languageIds.length) {
+                    languageIds = Arrays.copyOf(languageIds, Math.max(languageIds.length * 2, languageCount + languages.size()));
+                }
+                for (String language : languages) {
+                    languageIds[languageCount++] = dictionary.idOf(language);
+                }
+            }
+            languageOffsets[++row] = languageCount;
+        }
+        return new CountryTable(names, continents, populations, areas, accessionEpochDays,
+                languageOffsets, Arrays.copyOf(languageIds, languageCount), missingLanguages, dictionary);
+    }
+
+    /**
+     * Wandelt ein UN-Beitrittsdatum in den Epoch-Day der Spalte um; {@code null} wird zu {@link #NO_ACCESSION}.
+     *
+     * @throws IllegalArgumentException Falls der Epoch-Day nicht in einen {@code int} passt oder mit
+     *                                  {@link #NO_ACCESSION} zusammenfällt (Jahre ausserhalb von etwa ±5,8 Mio.).
+     */
+    static int toEpochDay(LocalDate date) {
+        if (date == null) {
+            return NO_ACCESSION;
+        }
+        long epochDay = date.toEpochDay();
+        if (epochDay <= NO_ACCESSION || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("UN-Beitrittsdatum ausserhalb des unterstützten Bereichs: " + date);
+        }
+        return (int) epochDay;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public Continent continent(int row) {
+        byte ordinal = continents[row];
+        return ordinal != NO_CONTINENT ? CONTINENTS[ordinal] : null;
+    }
+
+    public long population(int row) {
+        return populations[row];
+    }
+
+    public double area(int row) {
+        return areas[row];
+    }
+
+    /**
+     * Gibt das UN-Beitrittsdatum als Epoch-Day zurück oder {@link #NO_ACCESSION}, falls es fehlt.
+     */
+    public int accessionEpochDay(int row) {
+        return accessionEpochDays[row];
+    }
+
+    public LocalDate accessionToUN(int row) {
+        int epochDay = accessionEpochDays[row];
+        return epochDay != NO_ACCESSION ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    /**
+     * Gibt die Anzahl Sprachen zurück; fehlende Sprachlisten zählen wie in
+     * {@link Country#BY_NUMBER_OF_LANGUAGES_ASC} als 0.
+     */
+    public int languageCount(int row) {
+        return languageOffsets[row + 1] - languageOffsets[row];
+    }
+
+    /**
+     * Gibt zurück, ob das Land eine (eventuell leere) Sprachliste hat.
+     */
+    boolean hasLanguageList(int row) {
+        return !missingLanguages.get(row);
+    }
+
+    /**
+     * Gibt die Id der {@code index}-ten Sprache der Zeile im {@link #dictionary()} zurück.
+     */
+    public int languageId(int row, int index) {
+        return languageIds[languageOffsets[row] + index];
+    }
+
+    /**
+     * Gibt die Sprachen der Zeile zurück oder {@code null}, falls das Land keine Sprachliste hat.
+     */
+    public List<String> languages(int row) {
+        if (missingLanguages.get(row)) {
+            return null;
+        }
+        int from = languageOffsets[row];
+        int to = languageOffsets[row + 1];
+        List<String> languages = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            languages.add(dictionary.language(languageIds[i]));
+        }
+        return languages;
+    }
+
+    public LanguageDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Erstellt ein neues {@link Country}-Objekt aus der Zeile.
+     */
+    public Country get(int row) {
+        return new Country(name(row), continent(row), population(row), area(row), accessionToUN(row), languages(row));
+    }
+
+    /**
+     * Wandelt die Tabelle in der gespeicherten Reihenfolge zurück in eine Liste von Ländern.
+     */
+    public List<Country> toList() {
+        List<Country> countries = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            countries.add(get(row));
+        }
+        return countries;
+    }
+
+    /**
+     * Wandelt die Tabelle in der Reihenfolge der übergebenen Permutation in eine Liste von Ländern.
+     */
+    public List<Country> toList(int[] permutation) {
+        List<Country> countries = new ArrayList<>(permutation.length);
+        for (int row : permutation) {
+            countries.add(get(row));
+        }
+        return countries;
+    }
+
+    /**
+     * Gibt die Permutation {@code 0, 1, ..., size-1} zurück.
+     */
+    public int[] identityPermutation() {
+        int[] permutation = new int[size];
+        for (int i = 0; i < size; i++) {
+            permutation[i] = i;
+        }
+        return permutation;
+    }
+
+    /**
+     * Sortiert die Zeilenindizes stabil nach der übergebenen Reihenfolge.
+     * Ganzzahlige Schlüssel werden mit der {@link RadixSortEngine} ohne Vergleiche sortiert.
+     */
+    public int[] sortedPermutation(CountryOrdering ordering) {
+        if (size >= RadixSortEngine.RADIX_THRESHOLD && RadixSortEngine.supports(ordering)) {
+            return radixPermutation(ordering);
+        }
+        int[] permutation = identityPermutation();
+        IndexSort.sort(permutation, rowComparator(ordering));
+        return permutation;
+    }
+
+    private int[] radixPermutation(CountryOrdering ordering) {
+        long[] keys = new long[size];
+        switch (ordering) {
+            case POPULATION_ASC -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = RadixSortEngine.populationKey(populations[row]);
+                }
+                return RadixSortEngine.sortedOrder(size, null, 0, keys);
+            }
+            case AREA_DESC -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = ~RadixSortEngine.areaKey(areas[row]);
+                }
+                return RadixSortEngine.sortedOrder(size, null, 0, keys);
+            }
+            case UN_ACCESSION_DATE_ASC -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = RadixSortEngine.accessionKey(accessionEpochDays[row]);
+                }
+                return RadixSortEngine.sortedOrder(size, null, 0, keys);
+            }
+            case NUMBER_OF_LANGUAGES_ASC -> {
+                int[] counts = new int[size];
+                int max = 0;
+                for (int row = 0; row < size; row++) {
+                    counts[row] = languageCount(row);
+                    max = Math.max(max, counts[row]);
+                }
+                return RadixSortEngine.sortedOrder(size, counts, max + 1, null);
+            }
+            case CONTINENT_THEN_POPULATION_DESC -> {
+                int[] ranks = new int[size];
+                for (int row = 0; row < size; row++) {
+                    ranks[row] = continentRank(row);
+                    keys[row] = ~RadixSortEngine.populationKey(populations[row]);
+                }
+                return RadixSortEngine.sortedOrder(size, ranks, CONTINENT_BUCKETS, keys);
+            }
+            default -> throw new IllegalArgumentException("Keine ganzzahligen Schlüssel für " + ordering);
+        }
+    }
+
+    /**
+     * Sortiert die Zeilenindizes stabil nach dem übergebenen Comparator.
+     * Die {@code Country.BY_*}-Comparatoren, {@link SortByContinentThenPopulationDesc} und die natürliche
+     * Ordnung werden erkannt und direkt auf den Spalten ausgeführt. Für alle anderen Comparatoren werden
+     * die Länder einmalig materialisiert.
+     */
+    public int[] sortedPermutation(Comparator<? super Country> comparator) {
+        return CountryOrdering.of(comparator)
+                .map(this::sortedPermutation)
+                .orElseGet(() -> {
+                    Country[] rows = toList().toArray(new Country[0]);
+                    int[] permutation = identityPermutation();
+                    IndexSort.sort(permutation, (row1, row2) -> comparator.compare(rows[row1], rows[row2]));
+                    return permutation;
+                });
+    }
+
+    /**
+     * Gibt einen Zeilen-Comparator zurück, der genau dieselbe Ordnung liefert wie
+     * {@link CountryOrdering#comparator()}.
+     */
+    IndexSort.IndexComparator rowComparator(CountryOrdering ordering) {
+        return switch (ordering) {
+            case NAME -> this::compareNames;
+            case POPULATION_ASC -> (row1, row2) -> Long.compare(populations[row1], populations[row2]);
+            case AREA_DESC -> (row1, row2) -> Double.compare(areas[row2], areas[row1]);
+            case UN_ACCESSION_DATE_ASC -> this::compareAccession;
+            case NUMBER_OF_LANGUAGES_ASC -> (row1, row2) -> Integer.compare(languageCount(row1), languageCount(row2));
+            case CONTINENT_THEN_POPULATION_DESC -> (row1, row2) -> {
+                int continentCompare = Integer.compare(continentRank(row1), continentRank(row2));
+                return continentCompare != 0 ? continentCompare : Long.compare(populations[row2], populations[row1]);
+            };
+        };
+    }
+
+    private int compareNames(int row1, int row2) {
+        NameSortKey[] keys = nameSortKeys();
+        NameSortKey key1 = keys[row1];
+        NameSortKey key2 = keys[row2];
+        if (key1 == null) {
+            return key2 == null ? 0 : -1;
+        }
+        if (key2 == null) {
+            return 1;
+        }
+        return key1.compareTo(key2);
+    }
+
+    private NameSortKey[] nameSortKeys() {
+        NameSortKey[] keys = nameSortKeys;
+        if (keys == null) {
+            keys = new NameSortKey[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = names[row] != null ? NameSortKey.of(names[row]) : null;
+            }
+            nameSortKeys = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Gibt pro Zeile den Rang des Namens in der natürlichen Ordnung von {@link Country} zurück. Gleichwertige Namen
+     * haben denselben Rang, fehlende Namen den Rang {@code -1}. Die Ränge werden einmal pro Tabelle berechnet
+     * (nur die verschiedenen Namen werden sortiert) und von allen Sortierungen geteilt.
+     */
+    int[] nameRanks() {
+        int[] ranks = nameRanks;
+        if (ranks == null) {
+            ranks = nameRanks(names);
+            nameRanks = ranks;
+        }
+        return ranks;
+    }
+
+    /**
+     * Berechnet die Namensränge wie {@link #nameRanks()} für beliebige Namen, z.B. die einer Liste von Ländern.
+     */
+    static int[] nameRanks(String[] names) {
+        Map<String, Integer> distinctIds = new HashMap<>();
+        List<NameSortKey> distinctKeys = new ArrayList<>();
+        int[] ids = new int[names.length];
+        for (int row = 0; row < names.length; row++) {
+            String name = names[row];
+            ids[row] = name == null ? -1 : distinctIds.computeIfAbsent(name, ignored -> {
+                distinctKeys.add(NameSortKey.of(name));
+                return distinctKeys.size() - 1;
+            });
+        }
+        int[] order = new int[distinctKeys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IndexSort.sort(order, (id1, id2) -> distinctKeys.get(id1).compareTo(distinctKeys.get(id2)));
+        int[] rankOfId = new int[order.length];
+        int rank = -1;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || distinctKeys.get(order[i]).compareTo(distinctKeys.get(order[i - 1])) != 0) {
+                rank++;
+            }
+            rankOfId[order[i]] = rank;
+        }
+        for (int row = 0; row < ids.length; row++) {
+            ids[row] = ids[row] < 0 ? -1 : rankOfId[ids[row]];
+        }
+        return ids;
+    }
+
+    private int compareAccession(int row1, int row2) {
+        int day1 = accessionEpochDays[row1];
+        int day2 = accessionEpochDays[row2];
+        if (day1 == NO_ACCESSION) {
+            return day2 == NO_ACCESSION ? 0 : 1; // nulls last
+        }
+        if (day2 == NO_ACCESSION) {
+            return -1;
+        }
+        return Integer.compare(day1, day2);
+    }
+
+    private int continentRank(int row) {
+        byte ordinal = continents[row];
+        return ordinal != NO_CONTINENT ? CONTINENTS[ordinal].getDisplayRank() : CONTINENTS.length;
+    }
+
+    /**
+     * Gibt den Rang des Kontinents nach Anzeigename zurück; ein fehlender Kontinent erhält den
+     * höchsten Rang (nulls last).
+     */
+    static int continentRank(Continent continent) {
+        return continent != null ? continent.getDisplayRank() : CONTINENTS.length;
+    }
+}
@@ -6,20 +6,30 @@ import org.instancio.Select;
 import org.instancio.settings.Keys;
 import org.instancio.settings.Settings;
 
+import java.io.IOException;
+import java.lang.reflect.Modifier;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 /**
  * Eine Hilfsklasse zum Generieren von Testdaten.
  * Verwendet die Instancio Bibliothek, um zufällige, aber reproduzierbare Daten zu erzeugen.
+ * Für Datensätze mit mehreren Millionen Ländern gibt es zusätzlich einen schnellen Modus
+ * ({@link #generateCountriesFast(int)}), der ohne Reflection und parallel generiert.
  */
 public class DataGenerator {
 
     private static final Random RANDOM_GENERATOR = new Random();
+    private static final NamePool NAMEN = new NamePool();
     private static final long FIXED_SEED = 12345L; 
 
     // Vordefinierte Liste von möglichen Sprachen zur Auswahl
@@ -34,6 +44,18 @@ public class DataGenerator {
     private static final String[] SILBEN = {"Al", "ba", "ri", "on", "ta", "la", "ni", "ra", "do", "va", "lo", "sa"};
     private static final String[] ENDUNGEN = {"ien", "land", "stan", "tan", "mark"};
 
+    private static final Continent[] CONTINENTS = Continent.values();
+
+    // Schneller Modus: alle möglichen Namen und Sprachlisten werden einmalig vorberechnet und geteilt
+    private static final int BLOCK_SIZE = 1 << 14;
+    private static final int MAX_LANGUAGES = 3;
+    private static final int LANGUAGE_BITS = 5;
+    private static final int LANGUAGE_MASK = (1 << LANGUAGE_BITS) - 1;
+    private static final long MIN_ACCESSION_DAY = LocalDate.of(1945, 10, 24).toEpochDay();
+    private static final long MAX_ACCESSION_DAY = LocalDate.of(2023, 12, 31).toEpochDay();
+    private static final String[] ALLE_NAMEN = alleNamen();
+    private static final Map<Integer, List<String>> SPRACHLISTEN = new ConcurrentHashMap<>();
+
     private static String generiereSchoenenNamen(Random random) {
         String name = SILBEN[random.nextInt(SILBEN.length)] +
                 SILBEN[random.nextInt(SILBEN.length)] +
@@ -53,8 +75,10 @@ public class DataGenerator {
 
         Model<Country> countryModel = Instancio.of(Country.class)
                 .withSettings(instancioSettings)
-                .supply(Select.field(Country::getName), random -> generiereSchoenenNamen(RANDOM_GENERATOR))
-                .supply(Select.field(Country::getContinent), random -> Continent.values()[RANDOM_GENERATOR.nextInt(Continent.values().length)])
+                // Transiente Felder sind Caches (z.B. der Namens-Sortierschlüssel) und werden nicht generiert
+                .ignore(Select.fields(field -> Modifier.isTransient(field.getModifiers())))
+                .supply(Select.field(Country::getName), random -> NAMEN.intern(generiereSchoenenNamen(RANDOM_GENERATOR)))
+                .supply(Select.field(Country::getContinent), random -> CONTINENTS[RANDOM_GENERATOR.nextInt(CONTINENTS.length)])
                 .generate(Select.field(Country::getPopulation), gen -> gen.longs().min(500_000L).max(1_400_000_000L))
                 .supply(Select.field(Country::getAreaInSquareKm), random -> (double) (RANDOM_GENERATOR.nextLong(100_000, 17_000_000_000L)) / 100.0)
                 .supply(Select.field(Country::getAccessionToUN), random -> {
@@ -81,6 +105,199 @@ public class DataGenerator {
         return Instancio.of(countryModel).withSettings(instancioSettings).stream().limit(count).toList();
     }
 
+    /**
+     * Generiert eine Liste von Ländern im schnellen Modus.
+     *
+     * <p>Die Länder werden ohne Instancio direkt über den Konstruktor erzeugt. Die Zeilen sind in Blöcke
+     * aufgeteilt, die parallel generiert werden; jeder Block hat einen eigenen {@link SplittableRandom},
+     * der aus dem festen Seed abgeleitet ist. Das Ergebnis ist deshalb unabhängig von der Anzahl Threads
+     * reproduzierbar, unterscheidet sich aber von {@link #generateCountries(int)}.
+     * Namen und Sprachlisten ({@link LanguageSet}) sind unveränderlich und werden zwischen Ländern geteilt.
+     */
+    public static List<Country> generateCountriesFast(int count) {
+        Country[] countries = new Country[count];
+        generateBlocks(0, count, (random, row) -> countries[row] = generateCountry(random));
+        return Arrays.asList(countries);
+    }
+
+    /**
+     * Generiert dieselben Länder wie {@link #generateCountriesFast(int)}, schreibt sie aber direkt in die
+     * Spalten einer {@link CountryTable}, ohne {@code Country}-Objekte zu erzeugen.
+     */
+    public static CountryTable generateCountryTable(int count) {
+        String[] names = new String[count];
+        byte[] continents = new byte[count];
+        long[] populations = new long[count];
+        double[] areas = new double[count];
+        int[] accessionEpochDays = new int[count];
+        int[] languageKeys = new int[count];
+        generateBlocks(0, count, (random, row) -> {
+            names[row] = randomName(random);
+            continents[row] = (byte) random.nextInt(CONTINENTS.length);
+            populations[row] = randomPopulation(random);
+            areas[row] = randomArea(random);
+            accessionEpochDays[row] = randomAccessionEpochDay(random);
+            languageKeys[row] = randomLanguageKey(random);
+        });
+
+        int[] languageOffsets = new int[count + 1];
+        for (int row = 0; row < count; row++) {
+            languageOffsets[row + 1] = languageOffsets[row] + languageCount(languageKeys[row]);
+        }
+        int[] languageIds = new int[languageOffsets[count]];
+        IntStream.range(0, count).parallel().forEach(row -> {
+            int position = languageOffsets[row];
+            for (int key = languageKeys[row]; key != 0; key >>>= LANGUAGE_BITS) {
+                languageIds[position++] = (key & LANGUAGE_MASK) - 1;
+            }
+        });
+
+        LanguageDictionary dictionary = new LanguageDictionary();
+        POSSIBLE_LANGUAGES.forEach(dictionary::idOf);
+        return new CountryTable(names, continents, populations, areas, accessionEpochDays,
+                languageOffsets, languageIds, new BitSet(), dictionary);
+    }
+
+    /**
+     * Generiert dieselben Länder wie {@link #generateCountriesFast(int)} und schreibt sie im Binärformat.
+     * Es werden jeweils nur einige Blöcke gleichzeitig im Speicher gehalten.
+     */
+    public static void writeCountries(int count, CountryBinaryWriter writer) throws IOException {
+        int batchSize = BLOCK_SIZE * Math.max(1, Runtime.getRuntime().availableProcessors());
+        Country[] batch = new Country[Math.min(count, batchSize)];
+        for (int from = 0; from < count; from += batchSize) {
+            int to = Math.min(count, from + batchSize);
+            int batchStart = from;
+            generateBlocks(from, to, (random, row) -> batch[row - batchStart] = generateCountry(random));
+            for (int i = 0; i < to - from; i++) {
+                writer.write(batch[i]);
+            }
+        }
+    }
+
+    /**
+     * Erzeugt eine Zeile; wird pro Block sequentiell in Zeilenreihenfolge aufgerufen.
+     */
+    @FunctionalInterface
+    private interface RowGenerator {
+        void generate(SplittableRandom random, int row);
+    }
+
+    /**
+     * Generiert die Zeilen {@code [from, to)} parallel in Blöcken. Der Zufallsgenerator eines Blocks hängt
+     * nur vom Seed und der Blocknummer ab, nicht von der Aufteilung auf Threads.
+     */
+    private static void generateBlocks(int from, int to, RowGenerator generator) {
+        if (to <= from) {
+            return;
+        }
+        int firstBlock = from / BLOCK_SIZE;
+        int lastBlock = (to - 1) / BLOCK_SIZE;
+        SplittableRandom root = new SplittableRandom(FIXED_SEED);
+        for (int block = 0; block < firstBlock; block++) {
+            root.split();
+        }
+        SplittableRandom[] randoms = new SplittableRandom[lastBlock - firstBlock + 1];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = root.split();
+        }
+        IntStream.rangeClosed(firstBlock, lastBlock).parallel().forEach(block -> {
+            SplittableRandom random = randoms[block - firstBlock];
+            int blockEnd = Math.min(to, (block + 1) * BLOCK_SIZE);
+            // Zeilen vor from gehören zu einem früheren Aufruf, ihre Zufallszahlen müssen trotzdem verbraucht werden
+            for (int row = block * BLOCK_SIZE; row < blockEnd; row++) {
+                if (row >= from) {
+                    generator.generate(random, row);
+                } else {
+                    generateCountry(random);
+                }
+            }
+        });
+    }
+
+    private static Country generateCountry(SplittableRandom random) {
+        String name = randomName(random);
+        Continent continent = CONTINENTS[random.nextInt(CONTINENTS.length)];
+        long population = randomPopulation(random);
+        double area = randomArea(random);
+        int epochDay = randomAccessionEpochDay(random);
+        LocalDate accession = epochDay != CountryTable.NO_ACCESSION ? LocalDate.ofEpochDay(epochDay) : null;
+        return new Country(name, continent, population, area, accession, sprachliste(randomLanguageKey(random)));
+    }
+
+    private static String randomName(SplittableRandom random) {
+        return ALLE_NAMEN[(random.nextInt(SILBEN.length) * SILBEN.length + random.nextInt(SILBEN.length)) * ENDUNGEN.length
+                + random.nextInt(ENDUNGEN.length)];
+    }
+
+    private static long randomPopulation(SplittableRandom random) {
+        return random.nextLong(500_000L, 1_400_000_001L);
+    }
+
+    private static double randomArea(SplittableRandom random) {
+        return (double) random.nextLong(100_000, 17_000_000_000L) / 100.0;
+    }
+
+    private static int randomAccessionEpochDay(SplittableRandom random) {
+        if (random.nextDouble() < 0.1) {
+            return CountryTable.NO_ACCESSION;
+        }
+        return (int) (MIN_ACCESSION_DAY + random.nextLong(MAX_ACCESSION_DAY - MIN_ACCESSION_DAY + 1));
+    }
+
+    /**
+     * Wählt 1 bis 3 verschiedene Sprachen über {@link #POSSIBLE_LANGUAGES}, ohne die ganze Liste zu mischen.
+     * Die Sprachen bleiben in der Reihenfolge, in der sie gezogen wurden, wie beim Mischen in
+     * {@link #generateCountries(int)}. Der Schlüssel enthält pro Sprache deren Index + 1 in
+     * {@value #LANGUAGE_BITS} Bits, die zuerst gezogene Sprache zuunterst.
+     */
+    private static int randomLanguageKey(SplittableRandom random) {
+        int numberOfLanguages = random.nextInt(1, MAX_LANGUAGES + 1);
+        int chosen = 0;
+        int key = 0;
+        for (int i = 0; i < numberOfLanguages; ) {
+            int language = random.nextInt(POSSIBLE_LANGUAGES.size());
+            if ((chosen & 1 << language) == 0) {
+                chosen |= 1 << language;
+                key |= (language + 1) << (i++ * LANGUAGE_BITS);
+            }
+        }
+        return key;
+    }
+
+    private static int languageCount(int key) {
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(key) + LANGUAGE_BITS - 1) / LANGUAGE_BITS;
+    }
+
+    private static String[] alleNamen() {
+        String[] namen = new String[SILBEN.length * SILBEN.length * ENDUNGEN.length];
+        int index = 0;
+        for (String ersteSilbe : SILBEN) {
+            for (String zweiteSilbe : SILBEN) {
+                for (String endung : ENDUNGEN) {
+                    String name = ersteSilbe + zweiteSilbe + endung;
+                    namen[index++] = name.substring(0, 1).toUpperCase() + name.substring(1);
+                }
+            }
+        }
+        return namen;
+    }
+
+    // Es kommen nur wenige tausend Schlüssel vor; ihre Listen werden beim ersten Gebrauch angelegt
+    private static List<String> sprachliste(int key) {
+        List<String> liste = SPRACHLISTEN.get(key);
+        if (liste != null) {
+            return liste;
+        }
+        return SPRACHLISTEN.computeIfAbsent(key, ignored -> {
+            List<String> sprachen = new ArrayList<>(languageCount(key));
+            for (int bits = key; bits != 0; bits >>>= LANGUAGE_BITS) {
+                sprachen.add(POSSIBLE_LANGUAGES.get((bits & LANGUAGE_MASK) - 1));
+            }
+            return LanguageSet.of(sprachen);
+        });
+    }
+
     /**
      * Hauptmethode zum Testen des Datengenerators für Länder.
      * Generiert 100 Länder und gibt sie auf der Konsole aus.
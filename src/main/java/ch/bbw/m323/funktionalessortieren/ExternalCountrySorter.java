@@ -0,0 +1,331 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sortiert Länder, die nicht gemeinsam in den Heap passen (External Merge Sort).
+ *
+ * <p>Die Eingabe wird in Blöcke zerlegt, deren geschätzter Heap-Verbrauch das Speicherbudget nicht
+ * überschreitet. Jeder Block wird im Speicher sortiert und als Binär-Run ({@link CountryRecordCodec})
+ * über einen {@link FileChannel} in eine temporäre Datei geschrieben. Die Ausgabe ist ein lazy
+ * {@link Stream}, der die Runs über gemappte Fenster liest und mit einem Heap k-fach mergt. Jedes Fenster
+ * gehört zu einer eigenen {@link Arena} und wird beim Weiterschieben und beim Schliessen sofort freigegeben,
+ * damit die Run-Dateien auch unter Windows gelöscht werden können.
+ * Passt die ganze Eingabe ins Budget, wird keine Datei geschrieben.
+ *
+ * <p>Das Ergebnis ist stabil und identisch mit {@code list.sort(comparator)}. Der zurückgegebene Stream
+ * sollte geschlossen werden (z.B. mit try-with-resources), damit die Run-Dateien gelöscht werden.
+ * {@code null}-Elemente werden nicht unterstützt. UN-Beitrittsdaten, die das Binärformat nicht darstellen kann
+ * ({@link CountryTable#toEpochDay(LocalDate)}), werden nur sortiert, solange keine Runs geschrieben werden müssen.
+ */
+public final class ExternalCountrySorter {
+
+    /** Standardbudget für einen Block im Speicher. */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int READ_WINDOW_SIZE = 64 << 20;
+
+    // Grobe Heap-Schätzung: Objektköpfe, Referenzen und Felder von Country, LocalDate, String und Liste
+    private static final int COUNTRY_OVERHEAD = 160;
+    private static final int BYTES_PER_LANGUAGE = 8;
+
+    private final Comparator<? super Country> comparator;
+    private final long memoryBudget;
+    private final Path tempDirectory;
+    private final int readWindowSize;
+
+    /**
+     * Erstellt einen Sortierer mit dem {@link #DEFAULT_MEMORY_BUDGET} im Standard-Temp-Verzeichnis.
+     */
+    public ExternalCountrySorter(Comparator<? super Country> comparator) {
+        this(comparator, DEFAULT_MEMORY_BUDGET, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Erstellt einen Sortierer.
+     *
+     * @param comparator    Die Sortierreihenfolge, z.B. einer der {@code Country.BY_*}-Comparatoren.
+     * @param memoryBudget  Maximaler geschätzter Heap-Verbrauch eines Blocks in Bytes.
+     * @param tempDirectory Verzeichnis für die Run-Dateien.
+     */
+    public ExternalCountrySorter(Comparator<? super Country> comparator, long memoryBudget, Path tempDirectory) {
+        this(comparator, memoryBudget, tempDirectory, READ_WINDOW_SIZE);
+    }
+
+    /**
+     * Wie {@link #ExternalCountrySorter(Comparator, long, Path)}, aber mit eigener Grösse der gemappten Fenster.
+     * Ein Fenster wird bei Bedarf vergrössert, damit immer mindestens ein ganzer Datensatz hineinpasst.
+     */
+    ExternalCountrySorter(Comparator<? super Country> comparator, long memoryBudget, Path tempDirectory, int readWindowSize) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Das Speicherbudget muss positiv sein: " + memoryBudget);
+        }
+        if (readWindowSize <= 0) {
+            throw new IllegalArgumentException("Die Fenstergrösse muss positiv sein: " + readWindowSize);
+        }
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+        this.readWindowSize = readWindowSize;
+    }
+
+    /**
+     * Sortiert die Länder eines Streams. Der Eingabe-Stream wird vollständig gelesen, bevor das
+     * erste Element ausgegeben wird.
+     */
+    public Stream<Country> sort(Stream<Country> countries) {
+        try (countries) {
+            return sort(countries.iterator());
+        }
+    }
+
+    /**
+     * Sortiert die Länder eines Iterators. Der Iterator wird vollständig gelesen, bevor das
+     * erste Element ausgegeben wird.
+     *
+     * @throws IllegalArgumentException Falls ein Run geschrieben werden muss und ein Land ein UN-Beitrittsdatum
+     *                                  ausserhalb des Binärformats hat; bereits geschriebene Runs werden gelöscht.
+     */
+    public Stream<Country> sort(Iterator<Country> countries) {
+        List<Path> runs = new ArrayList<>();
+        LanguageDictionary dictionary = new LanguageDictionary();
+        List<Country> chunk = new ArrayList<>();
+        try {
+            long chunkBytes = 0;
+            while (countries.hasNext()) {
+                Country country = countries.next();
+                chunk.add(country);
+                chunkBytes += estimateHeapSize(country);
+                if (chunkBytes >= memoryBudget) {
+                    runs.add(writeRun(chunk, dictionary));
+                    chunk = new ArrayList<>();
+                    chunkBytes = 0;
+                }
+            }
+            if (runs.isEmpty()) {
+                RadixSortEngine.sort(chunk, comparator);
+                return chunk.stream();
+            }
+            if (!chunk.isEmpty()) {
+                runs.add(writeRun(chunk, dictionary));
+            }
+        } catch (IOException e) {
+            deleteQuietly(runs);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(runs);
+            throw e;
+        }
+        return merge(runs, dictionary);
+    }
+
+    private Path writeRun(List<Country> chunk, LanguageDictionary dictionary) throws IOException {
+        RadixSortEngine.sort(chunk, comparator);
+        Path run = Files.createTempFile(tempDirectory, "country-run-", ".bin");
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            for (Country country : chunk) {
+                byte[] nameBytes = CountryRecordCodec.encodeName(country);
+                int length = CountryRecordCodec.recordLength(country, nameBytes);
+                if (buffer.remaining() < length) {
+                    flush(channel, buffer);
+                    if (buffer.capacity() < length) {
+                        buffer = ByteBuffer.allocateDirect(length);
+                    }
+                }
+                CountryRecordCodec.encode(country, nameBytes, buffer, dictionary);
+            }
+            flush(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Stream<Country> merge(List<Path> runs, LanguageDictionary dictionary) {
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                readers.add(new RunReader(runs.get(i), i, dictionary, readWindowSize));
+            }
+        } catch (IOException e) {
+            closeQuietly(readers);
+            deleteQuietly(runs);
+            throw new UncheckedIOException(e);
+        }
+        MergeSpliterator spliterator = new MergeSpliterator(readers);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            closeQuietly(readers);
+            deleteQuietly(runs);
+        });
+    }
+
+    static long estimateHeapSize(Country country) {
+        String name = country.getName();
+        List<String> languages = country.getNationalLanguages();
+        return COUNTRY_OVERHEAD
+                + (name != null ? name.length() : 0)
+                + (languages != null ? (long) languages.size() * BYTES_PER_LANGUAGE : 0);
+    }
+
+    private static void closeQuietly(List<RunReader> readers) {
+        for (RunReader reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException ignored) {
+                // Aufräumen darf den eigentlichen Fehler nicht verdecken
+            }
+        }
+    }
+
+    private static void deleteQuietly(List<Path> runs) {
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException ignored) {
+                // Aufräumen darf den eigentlichen Fehler nicht verdecken
+            }
+        }
+    }
+
+    /**
+     * k-facher Merge über einen Heap. Bei Gleichheit gewinnt der frühere Run, was die Stabilität erhält.
+     */
+    private final class MergeSpliterator extends Spliterators.AbstractSpliterator<Country> {
+
+        private final PriorityQueue<RunReader> heap;
+
+        MergeSpliterator(List<RunReader> readers) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            Comparator<RunReader> byCurrent = (r1, r2) -> comparator.compare(r1.current, r2.current);
+            this.heap = new PriorityQueue<>(Math.max(1, readers.size()), byCurrent.thenComparingInt(reader -> reader.index));
+            for (RunReader reader : readers) {
+                if (reader.advance()) {
+                    heap.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Country> action) {
+            RunReader reader = heap.poll();
+            if (reader == null) {
+                return false;
+            }
+            Country next = reader.current;
+            if (reader.advance()) {
+                heap.add(reader);
+            }
+            action.accept(next);
+            return true;
+        }
+    }
+
+    /**
+     * Liest einen Run sequentiell über ein gleitendes, gemapptes Fenster.
+     */
+    private static final class RunReader implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final int index;
+        private final LanguageDictionary dictionary;
+        private final int windowSize;
+        private final long fileSize;
+        // Shared, weil der Stream in einem anderen Thread gelesen werden darf, als er erstellt wurde
+        private Arena mapping;
+        private ByteBuffer window;
+        private long windowStart;
+        private Country current;
+
+        RunReader(Path run, int index, LanguageDictionary dictionary, int windowSize) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.index = index;
+            this.dictionary = dictionary;
+            this.windowSize = windowSize;
+            this.fileSize = channel.size();
+            map(0, 0);
+        }
+
+        boolean advance() {
+            long position = windowStart + window.position();
+            if (position >= fileSize) {
+                current = null;
+                return false;
+            }
+            try {
+                if (window.remaining() < Integer.BYTES) {
+                    map(position, Integer.BYTES);
+                }
+                int length = window.getInt(window.position());
+                if (window.remaining() < length) {
+                    map(position, length);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int offset = window.position();
+            current = CountryRecordCodec.decode(window, offset, dictionary);
+            window.position(offset + window.getInt(offset));
+            return true;
+        }
+
+        // Mappt ab position ein Fenster, das mindestens minimum Bytes umfasst (soweit die Datei reicht)
+        private void map(long position, int minimum) throws IOException {
+            long length = Math.min(Math.max(windowSize, minimum), fileSize - position);
+            Arena next = Arena.ofShared();
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, length, next).asByteBuffer();
+            } catch (IOException | RuntimeException e) {
+                next.close();
+                throw e;
+            }
+            unmap();
+            mapping = next;
+            windowStart = position;
+        }
+
+        private void unmap() {
+            if (mapping != null) {
+                mapping.close();
+                mapping = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                unmap();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
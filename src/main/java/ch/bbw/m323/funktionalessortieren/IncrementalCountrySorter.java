@@ -0,0 +1,420 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Hält laufend eintreffende Länder in einer sortierten Struktur, ohne bei jeder Änderung neu zu sortieren.
+ *
+ * <p>Die Struktur besteht aus unveränderlichen, sortierten Runs (Log-Structured Merge). Ein Batch wird
+ * für sich sortiert und als neuer Run angehängt; ein Hintergrund-Thread fasst die jüngsten Runs zusammen,
+ * sobald ein Run mindestens halb so gross ist wie sein Vorgänger. Dadurch gibt es höchstens
+ * O(log n) Runs und ein Batch der Grösse b kostet amortisiert O(b log n). Kommt die Kompaktierung nicht
+ * nach, kompaktiert ein Batch ab {@link #MAX_RUNS} Runs selbst, bevor er zurückkehrt.
+ *
+ * <p>Länder werden über einen Schlüssel identifiziert, der beim Erstellen angegeben werden muss. Der Name eignet
+ * sich dafür nur, wenn er eindeutig ist (der {@link DataGenerator} erzeugt z.B. nur einige hundert verschiedene
+ * Namen). Ein Land mit einem bereits bekannten Schlüssel ersetzt die bisherige Version. Ein übergebenes Land darf danach nicht mehr verändert
+ * werden; eine Aktualisierung ist immer ein neues {@code Country}-Objekt.
+ *
+ * <p>{@link #snapshot()} liefert jederzeit eine konsistente Sicht auf den Stand nach dem letzten
+ * abgeschlossenen Batch. Spätere Batches und Kompaktierungen verändern eine bestehende Sicht nicht.
+ * Gleichwertige Länder stehen in der Reihenfolge ihres Eintreffens, die Sicht entspricht also
+ * {@code list.sort(comparator)} auf den aktuellen Versionen in Eintreffreihenfolge.
+ *
+ * <p>Schreibzugriffe werden serialisiert, Lesezugriffe sind ohne Sperre möglich. Der Hintergrund-Thread
+ * wird mit {@link #close()} beendet.
+ */
+public final class IncrementalCountrySorter implements AutoCloseable {
+
+    /** Ab dieser Anzahl Runs wartet ein Batch, bis die Kompaktierung aufgeholt hat. */
+    public static final int MAX_RUNS = 32;
+
+    private static final AtomicInteger SORTER_COUNTER = new AtomicInteger();
+
+    private final Comparator<? super Country> comparator;
+    private final Function<? super Country, ?> keyExtractor;
+    private final Comparator<Entry> entryOrder;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final AtomicReference<State> state = new AtomicReference<>(new State(new Entry[0][], 0, 0));
+
+    // Nur unter der Sperre auf this verwendet: aktuelle Version pro Schlüssel
+    private final Map<Object, Entry> current = new HashMap<>();
+    private final Object compactionLock = new Object();
+
+    /**
+     * Erstellt einen Sortierer.
+     *
+     * @param comparator   Die Sortierreihenfolge, z.B. {@link SortByContinentThenPopulationDesc}.
+     * @param keyExtractor Liefert den Schlüssel, über den eine neue Version die alte ersetzt.
+     */
+    public IncrementalCountrySorter(Comparator<? super Country> comparator, Function<? super Country, ?> keyExtractor) {
+        this.comparator = comparator;
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.entryOrder = (e1, e2) -> comparator.compare(e1.country, e2.country);
+        int sorterId = SORTER_COUNTER.incrementAndGet();
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "country-compaction-" + sorterId);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Übernimmt einen Batch neuer oder aktualisierter Länder. Enthält der Batch mehrere Versionen
+     * desselben Schlüssels, gilt die letzte.
+     */
+    public void ingest(Collection<? extends Country> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Entry[] arrival = new Entry[batch.size()];
+        int i = 0;
+        for (Country country : batch) {
+            arrival[i++] = new Entry(country);
+        }
+        Entry[] run = arrival.clone();
+        // Stabil: gleichwertige Länder bleiben in Batch-Reihenfolge
+        Arrays.sort(run, entryOrder);
+        synchronized (this) {
+            State before = state.get();
+            long sequence = before.sequence + 1;
+            // In Eintreffreihenfolge ersetzen, damit bei doppelten Schlüsseln die letzte Version gewinnt
+            for (Entry entry : arrival) {
+                Entry previous = current.put(keyExtractor.apply(entry.country), entry);
+                if (previous != null) {
+                    previous.supersededAt = sequence;
+                }
+            }
+            Entry[][] runs = Arrays.copyOf(before.runs, before.runs.length + 1);
+            runs[before.runs.length] = run;
+            state.set(new State(runs, sequence, current.size()));
+        }
+        if (runCount() > MAX_RUNS) {
+            compactPending();
+        } else {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Entfernt das Land mit dem Schlüssel.
+     *
+     * @return {@code true}, falls ein Land mit diesem Schlüssel vorhanden war.
+     */
+    public synchronized boolean remove(Object key) {
+        Entry previous = current.remove(key);
+        if (previous == null) {
+            return false;
+        }
+        State before = state.get();
+        long sequence = before.sequence + 1;
+        previous.supersededAt = sequence;
+        state.set(new State(before.runs, sequence, current.size()));
+        return true;
+    }
+
+    /**
+     * Gibt eine unveränderliche, sortierte Sicht auf den aktuellen Stand zurück.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(state.get());
+    }
+
+    /**
+     * Fasst sofort alle Runs zu einem einzigen zusammen und entfernt dabei ersetzte Versionen.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            State snapshot = state.get();
+            if (snapshot.runs.length > 1 || snapshot.size < countEntries(snapshot.runs)) {
+                mergeRuns(0, snapshot);
+            }
+        }
+    }
+
+    /**
+     * Gibt die aktuelle Anzahl Runs zurück.
+     */
+    public int runCount() {
+        return state.get().runs.length;
+    }
+
+    public int size() {
+        return state.get().size;
+    }
+
+    public Comparator<? super Country> getComparator() {
+        return comparator;
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdown();
+    }
+
+    private void scheduleCompaction() {
+        if (needsCompaction(state.get().runs) >= 0 && compactionScheduled.compareAndSet(false, true)) {
+            try {
+                compactor.execute(this::compactInBackground);
+            } catch (RejectedExecutionException e) {
+                // Nach close() wird nicht mehr im Hintergrund kompaktiert
+                compactionScheduled.set(false);
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        compactionScheduled.set(false);
+        compactPending();
+    }
+
+    private void compactPending() {
+        synchronized (compactionLock) {
+            State snapshot = state.get();
+            int from = needsCompaction(snapshot.runs);
+            while (from >= 0) {
+                mergeRuns(from, snapshot);
+                snapshot = state.get();
+                from = needsCompaction(snapshot.runs);
+            }
+        }
+    }
+
+    /**
+     * Gibt den ersten Run zurück, ab dem zusammengefasst werden soll, oder -1. Die Runs sollen von alt nach
+     * jung mindestens um den Faktor 2 kleiner werden.
+     */
+    private static int needsCompaction(Entry[][] runs) {
+        int from = -1;
+        long newer = 0;
+        for (int i = runs.length - 1; i > 0; i--) {
+            newer += runs[i].length;
+            if (2 * newer > runs[i - 1].length) {
+                from = i - 1;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Fasst die Runs ab {@code from} des übergebenen Stands zusammen. Nur unter {@link #compactionLock}.
+     */
+    private void mergeRuns(int from, State snapshot) {
+        Entry[][] runs = snapshot.runs;
+        long sequence = snapshot.sequence;
+        List<Entry[]> pending = new ArrayList<>(runs.length - from);
+        for (int i = from; i < runs.length; i++) {
+            pending.add(live(runs[i], sequence));
+        }
+        // Paarweise benachbarte Runs mergen, damit jeder Eintrag nur O(log k) Mal kopiert wird
+        while (pending.size() > 1) {
+            List<Entry[]> next = new ArrayList<>((pending.size() + 1) / 2);
+            for (int i = 0; i + 1 < pending.size(); i += 2) {
+                next.add(merge(pending.get(i), pending.get(i + 1)));
+            }
+            if (pending.size() % 2 == 1) {
+                next.add(pending.get(pending.size() - 1));
+            }
+            pending = next;
+        }
+        Entry[] merged = pending.get(0);
+        synchronized (this) {
+            State latest = state.get();
+            // Nur die Kompaktierung entfernt Runs, Schreiber hängen lediglich neue an
+            int appended = latest.runs.length - runs.length;
+            Entry[][] replaced = new Entry[from + (merged.length > 0 ? 1 : 0) + appended][];
+            System.arraycopy(latest.runs, 0, replaced, 0, from);
+            if (merged.length > 0) {
+                replaced[from] = merged;
+            }
+            System.arraycopy(latest.runs, runs.length, replaced, replaced.length - appended, appended);
+            state.set(new State(replaced, latest.sequence, latest.size));
+        }
+    }
+
+    // Entfernt Versionen, die für keinen neueren Stand mehr sichtbar sind
+    private static Entry[] live(Entry[] run, long sequence) {
+        int count = 0;
+        for (Entry entry : run) {
+            if (entry.supersededAt > sequence) {
+                count++;
+            }
+        }
+        if (count == run.length) {
+            return run;
+        }
+        Entry[] result = new Entry[count];
+        int i = 0;
+        for (Entry entry : run) {
+            if (entry.supersededAt > sequence) {
+                result[i++] = entry;
+            }
+        }
+        return result;
+    }
+
+    // Stabiler Merge: bei Gleichheit gewinnt der ältere Run
+    private Entry[] merge(Entry[] older, Entry[] newer) {
+        Entry[] result = new Entry[older.length + newer.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < older.length && j < newer.length) {
+            result[k++] = entryOrder.compare(newer[j], older[i]) < 0 ? newer[j++] : older[i++];
+        }
+        System.arraycopy(older, i, result, k, older.length - i);
+        System.arraycopy(newer, j, result, k + older.length - i, newer.length - j);
+        return result;
+    }
+
+    private static long countEntries(Entry[][] runs) {
+        long count = 0;
+        for (Entry[] run : runs) {
+            count += run.length;
+        }
+        return count;
+    }
+
+    /**
+     * Eine Version eines Landes. Sichtbar für alle Stände, die ihren Run enthalten, bis vor {@code supersededAt}.
+     */
+    private static final class Entry {
+
+        private final Country country;
+        // Wird höchstens einmal vor der Veröffentlichung des neuen Stands gesetzt
+        private volatile long supersededAt = Long.MAX_VALUE;
+
+        Entry(Country country) {
+            this.country = country;
+        }
+
+        boolean isVisibleAt(long sequence) {
+            return supersededAt > sequence;
+        }
+    }
+
+    /**
+     * Ein veröffentlichter Stand: Runs von alt nach jung, die Nummer des letzten Batches und die Anzahl Länder.
+     */
+    private record State(Entry[][] runs, long sequence, int size) {
+    }
+
+    /**
+     * Eine konsistente, sortierte Sicht auf einen Stand.
+     */
+    public final class Snapshot implements Iterable<Country> {
+
+        private final State state;
+
+        private Snapshot(State state) {
+            this.state = state;
+        }
+
+        public int size() {
+            return state.size;
+        }
+
+        @Override
+        public Iterator<Country> iterator() {
+            return new MergeIterator(state);
+        }
+
+        public Stream<Country> stream() {
+            Spliterator<Country> spliterator = Spliterators.spliterator(iterator(), state.size,
+                    Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED);
+            return StreamSupport.stream(spliterator, false);
+        }
+
+        public List<Country> toList() {
+            List<Country> result = new ArrayList<>(state.size);
+            iterator().forEachRemaining(result::add);
+            return result;
+        }
+    }
+
+    /**
+     * k-facher Merge über alle Runs eines Stands. Bei Gleichheit gewinnt der ältere Run.
+     */
+    private final class MergeIterator implements Iterator<Country> {
+
+        private final long sequence;
+        private final PriorityQueue<Cursor> heap;
+
+        MergeIterator(State state) {
+            this.sequence = state.sequence;
+            Comparator<Cursor> byCurrent = (c1, c2) -> entryOrder.compare(c1.current(), c2.current());
+            this.heap = new PriorityQueue<>(Math.max(1, state.runs.length), byCurrent.thenComparingInt(cursor -> cursor.runIndex));
+            for (int i = 0; i < state.runs.length; i++) {
+                Cursor cursor = new Cursor(state.runs[i], i);
+                if (cursor.skipInvisible(sequence)) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public Country next() {
+            Cursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            Country next = cursor.current().country;
+            cursor.position++;
+            if (cursor.skipInvisible(sequence)) {
+                heap.add(cursor);
+            }
+            return next;
+        }
+    }
+
+    private static final class Cursor {
+
+        private final Entry[] run;
+        private final int runIndex;
+        private int position;
+
+        Cursor(Entry[] run, int runIndex) {
+            this.run = run;
+            this.runIndex = runIndex;
+        }
+
+        Entry current() {
+            return run[position];
+        }
+
+        // Springt zum nächsten sichtbaren Eintrag; false, wenn der Run erschöpft ist
+        boolean skipInvisible(long sequence) {
+            while (position < run.length && !run[position].isVisibleAt(sequence)) {
+                position++;
+            }
+            return position < run.length;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ch.bbw.m323.funktionalessortieren;
+
+/**
+ * Stabiles Sortieren von Zeilenindizes ({@code int[]}) ohne Objekt-Allokation pro Element.
+ * Wird von den spaltenbasierten Strukturen verwendet, um Permutationen zu sortieren,
+ * statt die Datensätze selbst zu verschieben.
+ */
+public final class IndexSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private IndexSort() {
+    }
+
+    /**
+     * Vergleicht zwei Zeilenindizes. Entspricht {@link java.util.Comparator}, aber für primitive {@code int}.
+     */
+    @FunctionalInterface
+    public interface IndexComparator {
+        int compare(int row1, int row2);
+    }
+
+    /**
+     * Sortiert das ganze Array stabil (Merge Sort).
+     */
+    public static void sort(int[] indices, IndexComparator comparator) {
+        sort(indices, 0, indices.length, comparator);
+    }
+
+    /**
+     * Sortiert den Bereich {@code [from, to)} stabil (Merge Sort).
+     * Es wird einmalig ein Hilfsarray der Bereichsgrösse angelegt.
+     */
+    public static void sort(int[] indices, int from, int to, IndexComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[to - from];
+        System.arraycopy(indices, from, buffer, 0, to - from);
+        // buffer ist Quelle, indices Ziel; beide halten am Anfang dieselben Werte
+        mergeSort(buffer, 0, indices, from, to - from, comparator);
+    }
+
+    /**
+     * Sortiert {@code src[srcFrom..srcFrom+length)} nach {@code dst[dstFrom..dstFrom+length)}.
+     * Beide Bereiche müssen beim Aufruf dieselben Werte enthalten.
+     */
+    private static void mergeSort(int[] src, int srcFrom, int[] dst, int dstFrom, int length, IndexComparator comparator) {
+        if (length <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, dstFrom, dstFrom + length, comparator);
+            return;
+        }
+        int half = length >>> 1;
+        // Rollen tauschen: die Hälften werden in src sortiert und dann nach dst gemergt
+        mergeSort(dst, dstFrom, src, srcFrom, half, comparator);
+        mergeSort(dst, dstFrom + half, src, srcFrom + half, length - half, comparator);
+
+        int left = srcFrom;
+        int leftEnd = srcFrom + half;
+        int right = leftEnd;
+        int rightEnd = srcFrom + length;
+        if (comparator.compare(src[leftEnd - 1], src[right]) <= 0) {
+            System.arraycopy(src, srcFrom, dst, dstFrom, length);
+            return;
+        }
+        for (int i = dstFrom; i < dstFrom + length; i++) {
+            if (right >= rightEnd || (left < leftEnd && comparator.compare(src[left], src[right]) <= 0)) {
+                dst[i] = src[left++];
+            } else {
+                dst[i] = src[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(int[] a, int from, int to, IndexComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(a[j], value) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ein Wörterbuch, das jeder Sprache eine fortlaufende Id zuweist.
+ * Gleiche Sprachen werden so nur einmal gespeichert und können als {@code int} verglichen werden.
+ * Die Klasse ist threadsicher; einmal vergebene Ids ändern sich nicht mehr.
+ */
+public final class LanguageDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] languages = new String[0];
+
+    /**
+     * Gibt die Id einer Sprache zurück und vergibt eine neue, falls die Sprache noch unbekannt ist.
+     */
+    public int idOf(String language) {
+        Integer id = ids.get(language);
+        return id != null ? id : register(language);
+    }
+
+    /**
+     * Gibt die Id einer Sprache zurück oder {@code -1}, falls sie nicht im Wörterbuch steht.
+     */
+    public int find(String language) {
+        Integer id = ids.get(language);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gibt die Sprache zur übergebenen Id zurück.
+     */
+    public String language(int id) {
+        return languages[id];
+    }
+
+    /**
+     * Gibt die Anzahl der bekannten Sprachen zurück.
+     */
+    public int size() {
+        return languages.length;
+    }
+
+    /**
+     * Gibt alle bekannten Sprachen in der Reihenfolge ihrer Ids zurück.
+     */
+    public List<String> languages() {
+        return List.of(languages);
+    }
+
+    private synchronized int register(String language) {
+        Integer existing = ids.get(language);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = languages;
+        String[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[current.length] = language;
+        languages = extended;
+        ids.put(language, current.length);
+        return current.length;
+    }
+}
@@ -0,0 +1,169 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Unveränderliche Liste verschiedener Sprachen mit einer Bitmaske über ein globales {@link LanguageDictionary}.
+ *
+ * <p>Jede Sprachliste existiert nur einmal im Speicher: {@link #of(Collection)} gibt für gleiche Sprachen in
+ * gleicher Reihenfolge immer dieselbe Instanz zurück. Millionen Länder mit denselben Sprachen teilen sich damit
+ * eine einzige Liste. {@link #size()} und {@link #contains(Object)} sind O(1), der Hashcode wird einmalig berechnet.
+ *
+ * <p>Die Sprachen stehen in der übergebenen Reihenfolge; die Ids im Wörterbuch dienen nur der Bitmaske und
+ * beeinflussen die Reihenfolge nicht. {@code equals} und {@code hashCode} folgen dem Vertrag von {@link List},
+ * ein {@code LanguageSet} ist also gleich einer {@code ArrayList} mit denselben Sprachen in derselben Reihenfolge.
+ */
+public final class LanguageSet extends AbstractList<String> implements RandomAccess {
+
+    private static final LanguageDictionary DICTIONARY = new LanguageDictionary();
+    private static final ConcurrentMap<LanguageSet, LanguageSet> POOL = new ConcurrentHashMap<>();
+
+    /** Die leere Liste. */
+    public static final LanguageSet EMPTY = intern(new int[0], new long[0]);
+
+    // Ids in Listenreihenfolge; bestimmen equals
+    private final int[] ids;
+    // Ohne abschliessende 0-Wörter; nur für contains und containsAll
+    private final long[] words;
+    private final String[] languages;
+    private final int hash;
+
+    private LanguageSet(int[] ids, long[] words) {
+        this.ids = ids;
+        this.words = words;
+        this.languages = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            languages[i] = DICTIONARY.language(ids[i]);
+        }
+        this.hash = Arrays.asList(languages).hashCode();
+    }
+
+    /**
+     * Gibt die gemeinsame Instanz für die übergebenen Sprachen in ihrer Reihenfolge zurück. Unbekannte Sprachen
+     * werden im Wörterbuch registriert.
+     *
+     * @throws IllegalArgumentException Falls eine Sprache {@code null} ist oder mehrfach vorkommt.
+     */
+    public static LanguageSet of(Collection<String> languages) {
+        LanguageSet set = tryOf(languages);
+        if (set == null) {
+            throw new IllegalArgumentException("Eine Sprache kommt mehrfach vor: " + languages);
+        }
+        return set;
+    }
+
+    public static LanguageSet of(String... languages) {
+        return of(Arrays.asList(languages));
+    }
+
+    /**
+     * Gibt das globale Wörterbuch zurück, über dem alle Mengen gebildet werden.
+     */
+    public static LanguageDictionary dictionary() {
+        return DICTIONARY;
+    }
+
+    /**
+     * Wie {@link #of(Collection)}, gibt aber {@code null} zurück, falls eine Sprache mehrfach vorkommt.
+     */
+    static LanguageSet tryOf(Collection<String> languages) {
+        if (languages instanceof LanguageSet set) {
+            return set;
+        }
+        int[] ids = new int[languages.size()];
+        long[] words = new long[0];
+        int count = 0;
+        for (String language : languages) {
+            if (language == null) {
+                throw new IllegalArgumentException("Eine Sprache darf nicht null sein");
+            }
+            int id = DICTIONARY.idOf(language);
+            if (id >>> 6 >= words.length) {
+                words = Arrays.copyOf(words, (id >>> 6) + 1);
+            }
+            if ((words[id >>> 6] & 1L << id) != 0) {
+                return null;
+            }
+            words[id >>> 6] |= 1L << id;
+            ids[count++] = id;
+        }
+        return intern(ids, trim(words));
+    }
+
+    private static LanguageSet intern(int[] ids, long[] words) {
+        LanguageSet candidate = new LanguageSet(ids, words);
+        LanguageSet existing = POOL.putIfAbsent(candidate, candidate);
+        return existing != null ? existing : candidate;
+    }
+
+    private static long[] trim(long[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+
+    @Override
+    public String get(int index) {
+        return languages[index];
+    }
+
+    @Override
+    public int size() {
+        return languages.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String language)) {
+            return false;
+        }
+        int id = DICTIONARY.find(language);
+        return id >= 0 && id >>> 6 < words.length && (words[id >>> 6] & 1L << id) != 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof LanguageSet other) {
+            if (other.words.length > words.length) {
+                return false;
+            }
+            for (int w = 0; w < other.words.length; w++) {
+                if ((words[w] & other.words[w]) != other.words[w]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.containsAll(c);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof LanguageSet other) {
+            // Gleiche Ids bedeuten dieselben Sprachen in derselben Reihenfolge
+            return Arrays.equals(ids, other.ids);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return languages.clone();
+    }
+}
@@ -0,0 +1,118 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Threadsicheres Histogramm für Laufzeiten in Nanosekunden mit logarithmisch-linearen Buckets (wie HdrHistogram).
+ *
+ * <p>Jede Zweierpotenz ist in 16 gleich breite Buckets unterteilt, der relative Fehler eines Perzentils
+ * ist damit höchstens 1/16. Werte unter 32 ns werden exakt gezählt. Aufzeichnen ist ohne Sperre
+ * und ohne Allokation möglich.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKET_COUNT = EXACT_LIMIT + (Long.SIZE - 1 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Zeichnet einen Wert auf. Negative Werte werden als 0 gezählt.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum() / n;
+    }
+
+    /**
+     * Gibt eine obere Schranke für das Perzentil zurück, z.B. {@code percentile(0.99)}.
+     *
+     * @param quantile Wert zwischen 0 und 1.
+     * @return Die obere Grenze des Buckets, in dem das Perzentil liegt, höchstens aber {@link #max()}.
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Das Quantil muss zwischen 0 und 1 liegen: " + quantile);
+        }
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Gibt eine unabhängige Kopie des aktuellen Stands zurück.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = counts.get(i);
+            copy.counts.set(i, bucket);
+            copy.count.add(bucket);
+        }
+        copy.sum.add(sum());
+        copy.max.accumulate(max());
+        return copy;
+    }
+
+    static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT_LIMIT) / SUB_BUCKETS + 1;
+        long mantissa = SUB_BUCKETS + (bucket - EXACT_LIMIT) % SUB_BUCKETS;
+        long upper = ((mantissa + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -6,13 +6,18 @@ import java.util.Comparator;
 import java.util.List;
 
 /**
- * MainApp zur Demonstration verschiedener funktionaler Sortiertechniken
+ * MainApp zur Demonstration verschiedener funktionaler Sortiertechniken.
+ * Mit Argumenten aufgerufen, läuft stattdessen das Werkzeug {@link CountrySortCli}.
  */
 public class MainApp {
 
     private static final int ANZAHL_LAENDER_FUER_DEMO = 25; // Reduzierte Anzahl für übersichtlichere Konsolenausgabe kann auf 100 erhöht werden
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            CountrySortCli.main(args);
+            return;
+        }
         System.out.println("Starte die Demonstration der funktionalen Sortierung für Länder...");
 
         // Schritt 1: Daten generieren
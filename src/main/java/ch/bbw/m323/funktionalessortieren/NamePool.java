@@ -0,0 +1,32 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool, der für gleiche Namen immer dieselbe {@code String}-Instanz zurückgibt.
+ *
+ * <p>Generierte oder eingelesene Daten enthalten oft nur wenige verschiedene Namen. Über den Pool wird jeder
+ * Name nur einmal gespeichert. Im Gegensatz zu {@link String#intern()} gehört der Pool dem Aufrufer und
+ * wird mit ihm freigegeben. Die Klasse ist threadsicher; der Pool wächst mit jedem neuen Namen und eignet sich
+ * deshalb nur für Daten mit begrenzter Anzahl verschiedener Namen.
+ */
+public final class NamePool {
+
+    private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Gibt die gemeinsame Instanz für den Namen zurück; {@code null} bleibt {@code null}.
+     */
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,72 @@
+package ch.bbw.m323.funktionalessortieren;
+
+/**
+ * Vorberechneter Sortierschlüssel für den case-insensitiven Vergleich von Ländernamen.
+ * Der Schlüssel liefert dieselbe Ordnung wie {@link String#compareToIgnoreCase(String)},
+ * faltet die Gross-/Kleinschreibung aber nur einmal pro Name statt bei jedem Vergleich.
+ *
+ * <p>Die ersten vier gefalteten Zeichen sind in einem {@code long} gepackt, sodass die meisten
+ * Vergleiche mit einem einzigen Zahlenvergleich entschieden werden. Erst bei gleichem Präfix wird
+ * der vollständig gefaltete Name verglichen. Namen mit Surrogat-Zeichen (ausserhalb der BMP)
+ * werden nicht gefaltet und immer direkt mit {@code compareToIgnoreCase} verglichen.
+ */
+public final class NameSortKey implements Comparable<NameSortKey> {
+
+    private static final int PREFIX_CHARS = Long.SIZE / Character.SIZE;
+
+    private final String name;
+    private final long prefix;
+    private final String folded;
+
+    private NameSortKey(String name, long prefix, String folded) {
+        this.name = name;
+        this.prefix = prefix;
+        this.folded = folded;
+    }
+
+    /**
+     * Berechnet den Sortierschlüssel für einen Namen.
+     *
+     * @param name Der Name; darf nicht {@code null} sein.
+     */
+    public static NameSortKey of(String name) {
+        int length = name.length();
+        char[] folded = new char[length];
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (Character.isSurrogate(c)) {
+                return new NameSortKey(name, 0, null);
+            }
+            // Gleiche Faltung wie String.compareToIgnoreCase: erst Gross-, dann Kleinbuchstabe
+            folded[i] = Character.toLowerCase(Character.toUpperCase(c));
+        }
+        long prefix = 0;
+        for (int i = 0; i < PREFIX_CHARS; i++) {
+            prefix = (prefix << Character.SIZE) | (i < length ? folded[i] : 0);
+        }
+        return new NameSortKey(name, prefix, new String(folded));
+    }
+
+    /**
+     * Gibt den ursprünglichen Namen zurück.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int compareTo(NameSortKey other) {
+        if (folded == null || other.folded == null) {
+            return name.compareToIgnoreCase(other.name);
+        }
+        if (prefix != other.prefix) {
+            return Long.compareUnsigned(prefix, other.prefix);
+        }
+        return folded.compareTo(other.folded);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
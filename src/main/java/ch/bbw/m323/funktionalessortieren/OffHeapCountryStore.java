@@ -0,0 +1,409 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Länder ausserhalb des Java-Heaps, abgelegt mit der Foreign Function &amp; Memory API.
+ *
+ * <p>Jedes Land ist ein Datensatz fester Länge ({@value #RECORD_SIZE} Bytes) in einem {@link MemorySegment}:
+ * <pre>
+ *  0  long   Bevölkerung
+ *  8  double Fläche
+ * 16  long   Offset des Namens im Namens-Segment
+ * 24  int    Länge des Namens in Bytes (UTF-8), -1 = kein Name
+ * 28  int    UN-Beitritt als Epoch-Day, {@link CountryTable#NO_ACCESSION} = kein Datum
+ * 32  long   Offset der ersten Sprach-Id im Sprach-Segment
+ * 40  int    Anzahl Sprachen, -1 = keine Sprachliste
+ * 44  byte   Ordinalzahl des Kontinents, {@link CountryTable#NO_CONTINENT} = kein Kontinent
+ * 45  3 Bytes frei
+ * </pre>
+ * Die Namen liegen hintereinander in einem eigenen Segment, die Sprachen als Ids eines {@link LanguageDictionary}
+ * in einem dritten. Der Garbage Collector sieht damit pro Speicher nur eine Handvoll Objekte statt mehrerer
+ * Objekte pro Land.
+ *
+ * <p>{@link #sort(CountryOrdering)} sortiert die Datensätze stabil und vergleichsfrei direkt im Segment
+ * (Radix Sort über Schlüssel in einem temporären Segment, danach Umstellen der Datensätze entlang der Zyklen
+ * der Permutation). Die Reihenfolge entspricht den {@code Country.BY_*}-Comparatoren.
+ *
+ * <p>Länder werden erst beim Zugriff als {@link Country} erstellt ({@link #get(int)}, {@link #asList()});
+ * Änderungen an diesen Objekten wirken nicht auf den Speicher zurück. Der Speicher wird mit {@link #close()}
+ * freigegeben. Lesen ist aus mehreren Threads möglich, Sortieren und Schliessen nicht gleichzeitig mit
+ * anderen Zugriffen.
+ */
+public final class OffHeapCountryStore implements AutoCloseable {
+
+    /** Grösse eines Datensatzes in Bytes. */
+    public static final int RECORD_SIZE = 48;
+
+    private static final long POPULATION = 0;
+    private static final long AREA = 8;
+    private static final long NAME_OFFSET = 16;
+    private static final long NAME_LENGTH = 24;
+    private static final long ACCESSION = 28;
+    private static final long LANGUAGE_OFFSET = 32;
+    private static final long LANGUAGE_COUNT = 40;
+    private static final long CONTINENT = 44;
+
+    private static final Continent[] CONTINENTS = Continent.values();
+    private static final int RADIX = 256;
+
+    private final Arena arena;
+    private final int size;
+    private final MemorySegment records;
+    private final MemorySegment names;
+    private final MemorySegment languages;
+    private final LanguageDictionary dictionary;
+
+    private OffHeapCountryStore(Arena arena, int size, MemorySegment records, MemorySegment names,
+                                MemorySegment languages, LanguageDictionary dictionary) {
+        this.arena = arena;
+        this.size = size;
+        this.records = records;
+        this.names = names;
+        this.languages = languages;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Kopiert die Länder in einen neuen Speicher mit eigenem Sprachwörterbuch.
+     *
+     * @param countries Die Länder; {@code null}-Elemente sind nicht erlaubt.
+     */
+    public static OffHeapCountryStore of(List<Country> countries) {
+        LanguageDictionary dictionary = new LanguageDictionary();
+        int size = countries.size();
+        long nameBytes = 0;
+        long languageCount = 0;
+        for (Country country : countries) {
+            if (country.getName() != null) {
+                nameBytes += utf8Length(country.getName());
+            }
+            if (country.getNationalLanguages() != null) {
+                languageCount += country.getNationalLanguages().size();
+            }
+        }
+
+        Arena arena = Arena.ofShared();
+        try {
+            MemorySegment records = arena.allocate(Math.max(1, (long) size * RECORD_SIZE), Long.BYTES);
+            MemorySegment names = arena.allocate(Math.max(1, nameBytes), 1);
+            MemorySegment languages = arena.allocate(Math.max(1, languageCount * Integer.BYTES), Integer.BYTES);
+            long nameOffset = 0;
+            long languageOffset = 0;
+            long record = 0;
+            for (Country country : countries) {
+                records.set(ValueLayout.JAVA_LONG, record + POPULATION, country.getPopulation());
+                records.set(ValueLayout.JAVA_DOUBLE, record + AREA, country.getAreaInSquareKm());
+                records.set(ValueLayout.JAVA_INT, record + ACCESSION, CountryTable.toEpochDay(country.getAccessionToUN()));
+                records.set(ValueLayout.JAVA_BYTE, record + CONTINENT,
+                        country.getContinent() != null ? (byte) country.getContinent().ordinal() : CountryTable.NO_CONTINENT);
+
+                records.set(ValueLayout.JAVA_LONG, record + NAME_OFFSET, nameOffset);
+                if (country.getName() == null) {
+                    records.set(ValueLayout.JAVA_INT, record + NAME_LENGTH, -1);
+                } else {
+                    byte[] bytes = country.getName().getBytes(StandardCharsets.UTF_8);
+                    MemorySegment.copy(bytes, 0, names, ValueLayout.JAVA_BYTE, nameOffset, bytes.length);
+                    records.set(ValueLayout.JAVA_INT, record + NAME_LENGTH, bytes.length);
+                    nameOffset += bytes.length;
+                }
+
+                records.set(ValueLayout.JAVA_LONG, record + LANGUAGE_OFFSET, languageOffset);
+                List<String> countryLanguages = country.getNationalLanguages();
+                if (countryLanguages == null) {
+                    records.set(ValueLayout.JAVA_INT, record + LANGUAGE_COUNT, -1);
+                } else {
+                    records.set(ValueLayout.JAVA_INT, record + LANGUAGE_COUNT, countryLanguages.size());
+                    for (String language : countryLanguages) {
+                        languages.setAtIndex(ValueLayout.JAVA_INT, languageOffset++, dictionary.idOf(language));
+                    }
+                }
+                record += RECORD_SIZE;
+            }
+            return new OffHeapCountryStore(arena, size, records, names, languages, dictionary);
+        } catch (RuntimeException | Error e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    // Anzahl Bytes von String#getBytes(UTF_8), ohne das Array zu erstellen
+    private static long utf8Length(String s) {
+        long length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                // Einzelne Surrogates kodiert getBytes als '?'
+                length += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static long record(int row) {
+        return (long) row * RECORD_SIZE;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Zeile " + row + " ausserhalb von 0.." + (size - 1));
+        }
+    }
+
+    public String name(int row) {
+        checkRow(row);
+        int length = records.get(ValueLayout.JAVA_INT, record(row) + NAME_LENGTH);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(names, ValueLayout.JAVA_BYTE, records.get(ValueLayout.JAVA_LONG, record(row) + NAME_OFFSET),
+                bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public Continent continent(int row) {
+        checkRow(row);
+        byte ordinal = records.get(ValueLayout.JAVA_BYTE, record(row) + CONTINENT);
+        return ordinal != CountryTable.NO_CONTINENT ? CONTINENTS[ordinal] : null;
+    }
+
+    public long population(int row) {
+        checkRow(row);
+        return records.get(ValueLayout.JAVA_LONG, record(row) + POPULATION);
+    }
+
+    public double area(int row) {
+        checkRow(row);
+        return records.get(ValueLayout.JAVA_DOUBLE, record(row) + AREA);
+    }
+
+    /**
+     * Gibt das UN-Beitrittsdatum als Epoch-Day zurück oder {@link CountryTable#NO_ACCESSION}, falls es fehlt.
+     */
+    public int accessionEpochDay(int row) {
+        checkRow(row);
+        return records.get(ValueLayout.JAVA_INT, record(row) + ACCESSION);
+    }
+
+    public LocalDate accessionToUN(int row) {
+        int epochDay = accessionEpochDay(row);
+        return epochDay != CountryTable.NO_ACCESSION ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    /**
+     * Gibt die Sprachen der Zeile zurück oder {@code null}, falls das Land keine Sprachliste hat.
+     */
+    public List<String> languages(int row) {
+        checkRow(row);
+        int count = records.get(ValueLayout.JAVA_INT, record(row) + LANGUAGE_COUNT);
+        if (count < 0) {
+            return null;
+        }
+        long offset = records.get(ValueLayout.JAVA_LONG, record(row) + LANGUAGE_OFFSET);
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(dictionary.language(languages.getAtIndex(ValueLayout.JAVA_INT, offset + i)));
+        }
+        return result;
+    }
+
+    public LanguageDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Erstellt ein neues {@link Country}-Objekt aus der Zeile.
+     */
+    public Country get(int row) {
+        return new Country(name(row), continent(row), population(row), area(row), accessionToUN(row), languages(row));
+    }
+
+    /**
+     * Gibt eine unveränderliche Sicht auf die Länder zurück; jedes Element wird erst beim Zugriff erstellt.
+     */
+    public List<Country> asList() {
+        return new CountryView();
+    }
+
+    /**
+     * Gibt die Datensätze als schreibgeschütztes Segment zurück (Aufbau siehe Klassenbeschreibung).
+     */
+    public MemorySegment records() {
+        return records.asReadOnly();
+    }
+
+    /**
+     * Sortiert die Länder nach dem Comparator, sofern er eine der Reihenfolgen von {@link #sort(CountryOrdering)} ist.
+     *
+     * @throws IllegalArgumentException Falls der Comparator nicht unterstützt wird.
+     */
+    public void sort(Comparator<? super Country> comparator) {
+        sort(CountryOrdering.of(comparator).orElseThrow(() ->
+                new IllegalArgumentException("Off-Heap nicht sortierbar mit " + comparator)));
+    }
+
+    /**
+     * Sortiert die Datensätze stabil nach Bevölkerung, absteigender Fläche, UN-Beitritt oder Kontinent und
+     * absteigender Bevölkerung.
+     *
+     * @throws IllegalArgumentException Für {@link CountryOrdering#NAME} und {@link CountryOrdering#NUMBER_OF_LANGUAGES_ASC}.
+     */
+    public void sort(CountryOrdering ordering) {
+        if (ordering == CountryOrdering.NAME || ordering == CountryOrdering.NUMBER_OF_LANGUAGES_ASC) {
+            throw new IllegalArgumentException("Off-Heap nicht sortierbar nach " + ordering);
+        }
+        if (size < 2) {
+            return;
+        }
+        try (Arena scratch = Arena.ofConfined()) {
+            MemorySegment keys = scratch.allocate((long) size * Long.BYTES, Long.BYTES);
+            MemorySegment rows = scratch.allocate((long) size * Integer.BYTES, Integer.BYTES);
+            MemorySegment keyBuffer = scratch.allocate((long) size * Long.BYTES, Long.BYTES);
+            MemorySegment rowBuffer = scratch.allocate((long) size * Integer.BYTES, Integer.BYTES);
+            for (int row = 0; row < size; row++) {
+                keys.setAtIndex(ValueLayout.JAVA_LONG, row, key(ordering, row));
+                rows.setAtIndex(ValueLayout.JAVA_INT, row, row);
+            }
+            radixSort(keys, rows, keyBuffer, rowBuffer, Long.BYTES);
+            if (ordering == CountryOrdering.CONTINENT_THEN_POPULATION_DESC) {
+                // Zweiter, stabiler Durchgang über den Rang des Kontinents (nulls last)
+                for (int i = 0; i < size; i++) {
+                    int row = rows.getAtIndex(ValueLayout.JAVA_INT, i);
+                    byte ordinal = records.get(ValueLayout.JAVA_BYTE, record(row) + CONTINENT);
+                    keys.setAtIndex(ValueLayout.JAVA_LONG, i,
+                            CountryTable.continentRank(ordinal != CountryTable.NO_CONTINENT ? CONTINENTS[ordinal] : null));
+                }
+                radixSort(keys, rows, keyBuffer, rowBuffer, 1);
+            }
+            permute(rows, scratch.allocate(RECORD_SIZE, Long.BYTES));
+        }
+    }
+
+    private long key(CountryOrdering ordering, int row) {
+        long record = record(row);
+        return switch (ordering) {
+            case POPULATION_ASC -> RadixSortEngine.populationKey(records.get(ValueLayout.JAVA_LONG, record + POPULATION));
+            case AREA_DESC -> ~RadixSortEngine.areaKey(records.get(ValueLayout.JAVA_DOUBLE, record + AREA));
+            case UN_ACCESSION_DATE_ASC -> RadixSortEngine.accessionKey(records.get(ValueLayout.JAVA_INT, record + ACCESSION));
+            case CONTINENT_THEN_POPULATION_DESC ->
+                    ~RadixSortEngine.populationKey(records.get(ValueLayout.JAVA_LONG, record + POPULATION));
+            case NAME, NUMBER_OF_LANGUAGES_ASC -> throw new IllegalStateException("Bereits in sort geprüft: " + ordering);
+        };
+    }
+
+    /**
+     * LSD Radix Sort über die unteren {@code digits} Bytes der Schlüssel, vorzeichenlos und stabil, wie
+     * {@link RadixSortEngine}: ein Durchgang zählt alle Ziffern, danach wird abwechselnd zwischen Schlüsseln
+     * und Puffer verteilt. Ziffern, die in allen Schlüsseln gleich sind, werden übersprungen.
+     */
+    private void radixSort(MemorySegment keys, MemorySegment rows, MemorySegment keyBuffer, MemorySegment rowBuffer,
+                           int digits) {
+        int[] counts = new int[digits * RADIX];
+        for (int i = 0; i < size; i++) {
+            long key = keys.getAtIndex(ValueLayout.JAVA_LONG, i);
+            for (int digit = 0; digit < digits; digit++) {
+                counts[digit * RADIX + (int) ((key >>> (digit * Byte.SIZE)) & 0xFF)]++;
+            }
+        }
+        MemorySegment sourceKeys = keys;
+        MemorySegment sourceRows = rows;
+        MemorySegment targetKeys = keyBuffer;
+        MemorySegment targetRows = rowBuffer;
+        long first = keys.getAtIndex(ValueLayout.JAVA_LONG, 0);
+        for (int digit = 0; digit < digits; digit++) {
+            int shift = digit * Byte.SIZE;
+            int base = digit * RADIX;
+            if (counts[base + (int) ((first >>> shift) & 0xFF)] == size) {
+                continue;
+            }
+            int position = 0;
+            for (int bucket = 0; bucket < RADIX; bucket++) {
+                int count = counts[base + bucket];
+                counts[base + bucket] = position;
+                position += count;
+            }
+            for (int i = 0; i < size; i++) {
+                long key = sourceKeys.getAtIndex(ValueLayout.JAVA_LONG, i);
+                int target = counts[base + (int) ((key >>> shift) & 0xFF)]++;
+                targetKeys.setAtIndex(ValueLayout.JAVA_LONG, target, key);
+                targetRows.setAtIndex(ValueLayout.JAVA_INT, target, sourceRows.getAtIndex(ValueLayout.JAVA_INT, i));
+            }
+            MemorySegment swapKeys = sourceKeys;
+            MemorySegment swapRows = sourceRows;
+            sourceKeys = targetKeys;
+            sourceRows = targetRows;
+            targetKeys = swapKeys;
+            targetRows = swapRows;
+        }
+        if (sourceKeys != keys) {
+            MemorySegment.copy(sourceKeys, 0, keys, 0, keys.byteSize());
+            MemorySegment.copy(sourceRows, 0, rows, 0, rows.byteSize());
+        }
+    }
+
+    /**
+     * Stellt die Datensätze so um, dass an Position {@code i} der bisherige Datensatz {@code order[i]} steht.
+     * Jeder Zyklus der Permutation wird mit einem einzigen Zwischenspeicher abgearbeitet; {@code order} wird
+     * dabei zur Identität.
+     */
+    private void permute(MemorySegment order, MemorySegment temp) {
+        for (int start = 0; start < size; start++) {
+            if (order.getAtIndex(ValueLayout.JAVA_INT, start) == start) {
+                continue;
+            }
+            MemorySegment.copy(records, record(start), temp, 0, RECORD_SIZE);
+            int position = start;
+            int source = order.getAtIndex(ValueLayout.JAVA_INT, position);
+            while (source != start) {
+                MemorySegment.copy(records, record(source), records, record(position), RECORD_SIZE);
+                order.setAtIndex(ValueLayout.JAVA_INT, position, position);
+                position = source;
+                source = order.getAtIndex(ValueLayout.JAVA_INT, position);
+            }
+            MemorySegment.copy(temp, 0, records, record(position), RECORD_SIZE);
+            order.setAtIndex(ValueLayout.JAVA_INT, position, position);
+        }
+    }
+
+    /**
+     * Gibt den Speicher frei; danach führt jeder Zugriff zu einer {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private final class CountryView extends AbstractList<Country> implements RandomAccess {
+
+        @Override
+        public Country get(int index) {
+            return OffHeapCountryStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stabiler, paralleler Merge Sort für Länder auf einem eigenen {@link ForkJoinPool}.
+ *
+ * <p>Im Gegensatz zu {@code parallelStream().sorted()} lassen sich Parallelität und Schwellwerte
+ * einstellen, und sortiert wird direkt in der übergebenen Liste. Die Liste wird in Blöcke von höchstens
+ * {@code sequentialCutoff} Elementen zerlegt, die mit TimSort sortiert und anschliessend parallel
+ * zusammengeführt werden. Listen unter {@code sequentialThreshold} Elementen werden direkt mit
+ * {@link List#sort(Comparator)} sortiert.
+ *
+ * <p>Das Ergebnis ist für jeden Comparator identisch mit {@code list.sort(comparator)}.
+ * Der Pool wird mit {@link #close()} beendet.
+ */
+public final class ParallelCountrySorter implements AutoCloseable {
+
+    /** Standardgrösse eines sequentiell sortierten Blocks. */
+    public static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+    /** Standardgrösse, unter der gar nicht parallel sortiert wird. */
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final ForkJoinPool pool;
+    private final int sequentialCutoff;
+    private final int sequentialThreshold;
+
+    /**
+     * Erstellt einen Sortierer mit einem Worker pro verfügbarem Prozessor.
+     */
+    public ParallelCountrySorter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Erstellt einen Sortierer mit der angegebenen Parallelität und den Standard-Schwellwerten.
+     */
+    public ParallelCountrySorter(int parallelism) {
+        this(parallelism, DEFAULT_SEQUENTIAL_CUTOFF, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * Erstellt einen Sortierer.
+     *
+     * @param parallelism         Anzahl Worker-Threads des Pools.
+     * @param sequentialCutoff    Maximale Blockgrösse, die innerhalb eines Tasks sequentiell sortiert oder gemergt wird.
+     * @param sequentialThreshold Listen unter dieser Grösse werden ohne Pool sortiert.
+     */
+    public ParallelCountrySorter(int parallelism, int sequentialCutoff, int sequentialThreshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Die Parallelität muss mindestens 1 sein: " + parallelism);
+        }
+        if (sequentialCutoff < 2) {
+            throw new IllegalArgumentException("Der Cutoff muss mindestens 2 sein: " + sequentialCutoff);
+        }
+        this.sequentialCutoff = sequentialCutoff;
+        this.sequentialThreshold = sequentialThreshold;
+        int poolId = POOL_COUNTER.incrementAndGet();
+        AtomicInteger workerCounter = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            worker.setName("country-sort-" + poolId + "-worker-" + workerCounter.incrementAndGet());
+            return worker;
+        }, null, false);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getSequentialCutoff() {
+        return sequentialCutoff;
+    }
+
+    public int getSequentialThreshold() {
+        return sequentialThreshold;
+    }
+
+    /**
+     * Sortiert die Liste stabil an Ort und Stelle.
+     */
+    public void sort(List<Country> countries, Comparator<? super Country> comparator) {
+        if (SortInstrumentation.isEnabled()) {
+            SortInstrumentation.timed("ParallelCountrySorter", comparator, countries.size(), () -> sortList(countries, comparator));
+        } else {
+            sortList(countries, comparator);
+        }
+    }
+
+    private void sortList(List<Country> countries, Comparator<? super Country> comparator) {
+        if (countries.size() < sequentialThreshold) {
+            countries.sort(comparator);
+            return;
+        }
+        Country[] array = countries.toArray(new Country[0]);
+        sortArray(array, comparator);
+        ListIterator<Country> iterator = countries.listIterator();
+        for (Country country : array) {
+            iterator.next();
+            iterator.set(country);
+        }
+    }
+
+    /**
+     * Sortiert das Array stabil an Ort und Stelle.
+     */
+    public void sort(Country[] countries, Comparator<? super Country> comparator) {
+        if (SortInstrumentation.isEnabled()) {
+            SortInstrumentation.timed("ParallelCountrySorter", comparator, countries.length, () -> sortArray(countries, comparator));
+        } else {
+            sortArray(countries, comparator);
+        }
+    }
+
+    private void sortArray(Country[] countries, Comparator<? super Country> comparator) {
+        if (countries.length < sequentialThreshold) {
+            Arrays.sort(countries, comparator);
+            return;
+        }
+        Country[] buffer = countries.clone();
+        pool.invoke(new SortTask(buffer, countries, 0, countries.length, comparator));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Sortiert {@code [from, to)} so, dass das Ergebnis in {@code target} liegt.
+     * Beide Arrays müssen beim Start in diesem Bereich dieselben Elemente enthalten.
+     */
+    private final class SortTask extends RecursiveAction {
+
+        private final Country[] source;
+        private final Country[] target;
+        private final int from;
+        private final int to;
+        private final Comparator<? super Country> comparator;
+
+        SortTask(Country[] source, Country[] target, int from, int to, Comparator<? super Country> comparator) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= sequentialCutoff) {
+                Arrays.sort(target, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            // Die Hälften werden in source sortiert und danach nach target gemergt
+            invokeAll(new SortTask(target, source, from, middle, comparator),
+                    new SortTask(target, source, middle, to, comparator));
+            if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+                System.arraycopy(source, from, target, from, to - from);
+                return;
+            }
+            new MergeTask(source, from, middle, middle, to, target, from, comparator).compute();
+        }
+    }
+
+    /**
+     * Mergt zwei sortierte Bereiche stabil nach {@code target}; Elemente des linken Bereichs gewinnen bei Gleichheit.
+     * Grosse Merges werden am Median des längeren Bereichs geteilt und parallel ausgeführt.
+     */
+    private final class MergeTask extends RecursiveAction {
+
+        private final Country[] source;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final Country[] target;
+        private final int targetFrom;
+        private final Comparator<? super Country> comparator;
+
+        MergeTask(Country[] source, int leftFrom, int leftTo, int rightFrom, int rightTo,
+                  Country[] target, int targetFrom, Comparator<? super Country> comparator) {
+            this.source = source;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.target = target;
+            this.targetFrom = targetFrom;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftTo - leftFrom;
+            int rightLength = rightTo - rightFrom;
+            if (leftLength + rightLength <= sequentialCutoff || leftLength == 0 || rightLength == 0) {
+                mergeSequentially();
+                return;
+            }
+            int leftSplit;
+            int rightSplit;
+            if (leftLength >= rightLength) {
+                leftSplit = (leftFrom + leftTo) >>> 1;
+                // Rechte Elemente, die kleiner als der Pivot sind, gehören vor den Pivot
+                rightSplit = lowerBound(rightFrom, rightTo, source[leftSplit]);
+            } else {
+                rightSplit = (rightFrom + rightTo) >>> 1;
+                // Linke Elemente, die gleich dem Pivot sind, gehören vor den Pivot
+                leftSplit = upperBound(leftFrom, leftTo, source[rightSplit]);
+            }
+            int targetSplit = targetFrom + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+            invokeAll(new MergeTask(source, leftFrom, leftSplit, rightFrom, rightSplit, target, targetFrom, comparator),
+                    new MergeTask(source, leftSplit, leftTo, rightSplit, rightTo, target, targetSplit, comparator));
+        }
+
+        private void mergeSequentially() {
+            int left = leftFrom;
+            int right = rightFrom;
+            int position = targetFrom;
+            while (left < leftTo && right < rightTo) {
+                if (comparator.compare(source[left], source[right]) <= 0) {
+                    target[position++] = source[left++];
+                } else {
+                    target[position++] = source[right++];
+                }
+            }
+            System.arraycopy(source, left, target, position, leftTo - left);
+            System.arraycopy(source, right, target, position + (leftTo - left), rightTo - right);
+        }
+
+        // Erste Position, deren Element nicht kleiner als der Pivot ist
+        private int lowerBound(int from, int to, Country pivot) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (comparator.compare(source[middle], pivot) < 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            return from;
+        }
+
+        // Erste Position, deren Element grösser als der Pivot ist
+        private int upperBound(int from, int to, Country pivot) {
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (comparator.compare(source[middle], pivot) <= 0) {
+                    from = middle + 1;
+                } else {
+                    to = middle;
+                }
+            }
+            return from;
+        }
+    }
+}
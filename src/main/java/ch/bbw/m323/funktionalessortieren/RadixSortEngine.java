@@ -0,0 +1,313 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Optional;
+
+/**
+ * Sortiert Länder ohne Vergleiche, wenn der Sortierschlüssel eine Ganzzahl fester Breite ist.
+ *
+ * <ul>
+ *     <li>Bevölkerung und UN-Beitrittsdatum ({@code long} Epoch-Day, nulls last): LSD Radix Sort mit 8-Bit-Ziffern</li>
+ *     <li>Anzahl Sprachen: Counting Sort</li>
+ *     <li>Kontinent, dann Bevölkerung absteigend: Counting Sort nach Kontinent-Rang,
+ *         danach Radix Sort innerhalb jedes Kontinents</li>
+ *     <li>Fläche absteigend: Radix Sort auf der sortierbaren Bit-Darstellung des {@code double}</li>
+ * </ul>
+ *
+ * <p>Alle Verfahren sind stabil. Eine {@code thenComparing}-Kette kann deshalb wie bei TimSort
+ * nachgebildet werden, indem zuerst nach dem untergeordneten und danach nach dem übergeordneten
+ * Schlüssel sortiert wird. Für unbekannte Comparatoren und kleine Listen wird auf
+ * {@link List#sort(Comparator)} zurückgegriffen.
+ */
+public final class RadixSortEngine {
+
+    /** Unter dieser Grösse lohnt sich der Aufbau der Schlüssel-Arrays nicht. */
+    static final int RADIX_THRESHOLD = 256;
+
+    private static final int INSERTION_SORT_THRESHOLD = 48;
+    private static final int RADIX = 256;
+    private static final int DIGITS = Long.BYTES;
+
+    private RadixSortEngine() {
+    }
+
+    /**
+     * Prüft, ob für den Comparator ein vergleichsfreies Verfahren zur Verfügung steht.
+     */
+    public static boolean supports(Comparator<? super Country> comparator) {
+        return CountryOrdering.of(comparator).filter(RadixSortEngine::supports).isPresent();
+    }
+
+    static boolean supports(CountryOrdering ordering) {
+        return ordering != CountryOrdering.NAME;
+    }
+
+    /**
+     * Sortiert die Liste stabil und liefert dasselbe Ergebnis wie {@code countries.sort(comparator)}.
+     */
+    public static void sort(List<Country> countries, Comparator<? super Country> comparator) {
+        if (SortInstrumentation.isEnabled()) {
+            SortInstrumentation.timed("RadixSortEngine", comparator, countries.size(), () -> sortList(countries, comparator));
+        } else {
+            sortList(countries, comparator);
+        }
+    }
+
+    private static void sortList(List<Country> countries, Comparator<? super Country> comparator) {
+        Optional<CountryOrdering> ordering = CountryOrdering.of(comparator);
+        if (countries.size() < RADIX_THRESHOLD || ordering.isEmpty() || !supports(ordering.get())) {
+            countries.sort(comparator);
+            return;
+        }
+        Country[] rows = countries.toArray(new Country[0]);
+        int[] order = sortedOrder(rows, ordering.get());
+        ListIterator<Country> iterator = countries.listIterator();
+        for (int row : order) {
+            iterator.next();
+            iterator.set(rows[row]);
+        }
+    }
+
+    /**
+     * Sortiert das Array stabil und liefert dasselbe Ergebnis wie {@code Arrays.sort(countries, comparator)}.
+     */
+    public static void sort(Country[] countries, Comparator<? super Country> comparator) {
+        if (SortInstrumentation.isEnabled()) {
+            SortInstrumentation.timed("RadixSortEngine", comparator, countries.length, () -> sortArray(countries, comparator));
+        } else {
+            sortArray(countries, comparator);
+        }
+    }
+
+    private static void sortArray(Country[] countries, Comparator<? super Country> comparator) {
+        Optional<CountryOrdering> ordering = CountryOrdering.of(comparator);
+        if (countries.length < RADIX_THRESHOLD || ordering.isEmpty() || !supports(ordering.get())) {
+            Arrays.sort(countries, comparator);
+            return;
+        }
+        Country[] rows = countries.clone();
+        int[] order = sortedOrder(rows, ordering.get());
+        for (int i = 0; i < order.length; i++) {
+            countries[i] = rows[order[i]];
+        }
+    }
+
+    private static int[] sortedOrder(Country[] rows, CountryOrdering ordering) {
+        int n = rows.length;
+        return switch (ordering) {
+            case POPULATION_ASC -> {
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = populationKey(rows[i].getPopulation());
+                }
+                yield sortedOrder(n, null, 0, keys);
+            }
+            case AREA_DESC -> {
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = ~areaKey(rows[i].getAreaInSquareKm());
+                }
+                yield sortedOrder(n, null, 0, keys);
+            }
+            case UN_ACCESSION_DATE_ASC -> {
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = accessionKey(rows[i].getAccessionToUN());
+                }
+                yield sortedOrder(n, null, 0, keys);
+            }
+            case NUMBER_OF_LANGUAGES_ASC -> {
+                int[] counts = new int[n];
+                int max = 0;
+                for (int i = 0; i < n; i++) {
+                    List<String> languages = rows[i].getNationalLanguages();
+                    counts[i] = languages != null ? languages.size() : 0;
+                    max = Math.max(max, counts[i]);
+                }
+                yield sortedOrder(n, counts, max + 1, null);
+            }
+            case CONTINENT_THEN_POPULATION_DESC -> {
+                // null-Länder kommen nach allen Kontinenten, auch nach fehlenden Kontinenten
+                int[] buckets = new int[n];
+                long[] keys = new long[n];
+                for (int i = 0; i < n; i++) {
+                    Country country = rows[i];
+                    if (country == null) {
+                        buckets[i] = CountryTable.CONTINENT_BUCKETS;
+                    } else {
+                        buckets[i] = CountryTable.continentRank(country.getContinent());
+                        keys[i] = ~populationKey(country.getPopulation());
+                    }
+                }
+                yield sortedOrder(n, buckets, CountryTable.CONTINENT_BUCKETS + 1, keys);
+            }
+            case NAME -> throw new IllegalArgumentException("Keine ganzzahligen Schlüssel für " + ordering);
+        };
+    }
+
+    /**
+     * Berechnet die stabile Sortierreihenfolge der Zeilen {@code 0..n-1}.
+     *
+     * @param n           Anzahl Zeilen.
+     * @param buckets     Optionaler erster Schlüssel im Bereich {@code [0, bucketCount)} (Counting Sort).
+     * @param bucketCount Anzahl möglicher Bucket-Werte.
+     * @param keys        Optionaler zweiter Schlüssel, vorzeichenlos aufsteigend verglichen (Radix Sort).
+     *                    Der Inhalt des Arrays wird dabei verändert.
+     * @return Die Zeilenindizes in sortierter Reihenfolge.
+     */
+    static int[] sortedOrder(int n, int[] buckets, int bucketCount, long[] keys) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        if (buckets == null) {
+            if (keys != null) {
+                radixSort(keys, order, 0, n);
+            }
+            return order;
+        }
+        int[] offsets = countingSort(buckets, bucketCount, order);
+        if (keys != null) {
+            long[] orderedKeys = new long[n];
+            for (int i = 0; i < n; i++) {
+                orderedKeys[i] = keys[order[i]];
+            }
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                radixSort(orderedKeys, order, offsets[bucket], offsets[bucket + 1]);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Ordnet {@code order} stabil nach {@code buckets[order[i]]} um.
+     *
+     * @return Die Startposition jedes Buckets; {@code offsets[bucketCount]} ist die Gesamtlänge.
+     */
+    static int[] countingSort(int[] buckets, int bucketCount, int[] order) {
+        int[] offsets = new int[bucketCount + 1];
+        for (int row : order) {
+            offsets[buckets[row] + 1]++;
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            offsets[bucket + 1] += offsets[bucket];
+        }
+        int[] next = Arrays.copyOf(offsets, bucketCount);
+        int[] sorted = new int[order.length];
+        for (int row : order) {
+            sorted[next[buckets[row]]++] = row;
+        }
+        System.arraycopy(sorted, 0, order, 0, order.length);
+        return offsets;
+    }
+
+    /**
+     * Sortiert {@code keys[from..to)} vorzeichenlos aufsteigend (LSD, 8-Bit-Ziffern) und verschiebt
+     * {@code payload} im Gleichschritt. Ziffern, die in allen Schlüsseln gleich sind, werden übersprungen.
+     */
+    static void radixSort(long[] keys, int[] payload, int from, int to) {
+        int n = to - from;
+        if (n <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, payload, from, to);
+            return;
+        }
+        int[] counts = new int[DIGITS * RADIX];
+        for (int i = from; i < to; i++) {
+            long key = keys[i];
+            for (int digit = 0; digit < DIGITS; digit++) {
+                counts[digit * RADIX + (int) ((key >>> (digit * 8)) & 0xFF)]++;
+            }
+        }
+
+        long[] sourceKeys = keys;
+        int[] sourcePayload = payload;
+        int sourceFrom = from;
+        long[] targetKeys = new long[n];
+        int[] targetPayload = new int[n];
+        int targetFrom = 0;
+        for (int digit = 0; digit < DIGITS; digit++) {
+            int shift = digit * 8;
+            int base = digit * RADIX;
+            if (counts[base + (int) ((keys[from] >>> shift) & 0xFF)] == n) {
+                continue; // alle Schlüssel haben hier dieselbe Ziffer
+            }
+            int position = targetFrom;
+            for (int value = 0; value < RADIX; value++) {
+                int count = counts[base + value];
+                counts[base + value] = position;
+                position += count;
+            }
+            for (int i = sourceFrom; i < sourceFrom + n; i++) {
+                long key = sourceKeys[i];
+                int target = counts[base + (int) ((key >>> shift) & 0xFF)]++;
+                targetKeys[target] = key;
+                targetPayload[target] = sourcePayload[i];
+            }
+            long[] swapKeys = sourceKeys;
+            int[] swapPayload = sourcePayload;
+            int swapFrom = sourceFrom;
+            sourceKeys = targetKeys;
+            sourcePayload = targetPayload;
+            sourceFrom = targetFrom;
+            targetKeys = swapKeys;
+            targetPayload = swapPayload;
+            targetFrom = swapFrom;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, sourceFrom, keys, from, n);
+            System.arraycopy(sourcePayload, sourceFrom, payload, from, n);
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] payload, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int value = payload[i];
+            int j = i - 1;
+            while (j >= from && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                payload[j + 1] = payload[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            payload[j + 1] = value;
+        }
+    }
+
+    /**
+     * Bildet eine Bevölkerungszahl auf einen vorzeichenlos aufsteigend sortierbaren Schlüssel ab.
+     * Für absteigende Sortierung wird der Schlüssel bitweise invertiert.
+     */
+    static long populationKey(long population) {
+        return population ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Bildet eine Fläche so ab, dass die vorzeichenlose Ordnung der Schlüssel {@link Double#compare} entspricht.
+     */
+    static long areaKey(double area) {
+        long bits = Double.doubleToLongBits(area);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Bildet ein Datum auf einen vorzeichenlos aufsteigend sortierbaren Schlüssel ab; {@code null} kommt zuletzt.
+     * Anders als {@link #accessionKey(int)} gilt das für jedes {@link LocalDate}, auch ausserhalb des
+     * {@code int}-Bereichs der Spalten.
+     */
+    static long accessionKey(LocalDate date) {
+        // |Epoch-Day| < 2^39, der Schlüssel erreicht also nie den Wert von null (alle Bits gesetzt)
+        return date != null ? date.toEpochDay() ^ Long.MIN_VALUE : -1L;
+    }
+
+    /**
+     * Bildet einen Epoch-Day auf einen sortierbaren Schlüssel ab; {@link CountryTable#NO_ACCESSION} kommt zuletzt.
+     */
+    static long accessionKey(int epochDay) {
+        return epochDay == CountryTable.NO_ACCESSION ? 1L << 32 : (epochDay ^ Integer.MIN_VALUE) & 0xFFFF_FFFFL;
+    }
+}
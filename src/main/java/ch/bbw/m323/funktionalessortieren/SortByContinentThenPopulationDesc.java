@@ -6,7 +6,7 @@ import java.util.Comparator;
  * Ein Comparator, der Objekte zuerst nach ihrem Kontinent (aufsteigend nach Anzeigenamen)
  * und dann innerhalb jedes Kontinents nach ihrer Bevölkerung (absteigend) sortiert.
  */
-public class SortByContinentThenPopulationDesc implements Comparator<Country> {
+public final class SortByContinentThenPopulationDesc implements Comparator<Country> {
 
     @Override
     public int compare(Country c1, Country c2) {
@@ -26,7 +26,8 @@ public class SortByContinentThenPopulationDesc implements Comparator<Country> {
         } else if (cont2 == null) {
             continentCompare = -1; // null Kontinente ans Ende
         } else {
-            continentCompare = cont1.getDisplayName().compareToIgnoreCase(cont2.getDisplayName());
+            // Vorberechneter Rang statt compareToIgnoreCase auf den Anzeigenamen
+            continentCompare = Integer.compare(cont1.getDisplayRank(), cont2.getDisplayRank());
         }
 
         if (continentCompare != 0) {
@@ -0,0 +1,66 @@
+package ch.bbw.m323.funktionalessortieren;
+
+/**
+ * Die Felder eines Landes, nach denen eine {@link SortSpec} sortieren kann.
+ */
+public enum SortField {
+
+    /** Name, ohne Beachtung der Gross-/Kleinschreibung. */
+    NAME("name", true),
+
+    /** Kontinent in der Reihenfolge der Anzeigenamen. */
+    CONTINENT("continent", true),
+
+    /** Bevölkerungszahl. */
+    POPULATION("population", false),
+
+    /** Fläche in Quadratkilometern. */
+    AREA("area", false),
+
+    /** UN-Beitrittsdatum. */
+    UN_ACCESSION("accession", true),
+
+    /** Anzahl Nationalsprachen; eine fehlende Sprachliste zählt als 0. */
+    LANGUAGES("languages", false);
+
+    private final String alias;
+    private final boolean nullable;
+
+    SortField(String alias, boolean nullable) {
+        this.alias = alias;
+        this.nullable = nullable;
+    }
+
+    /**
+     * Gibt den Namen zurück, unter dem das Feld in einer Sortierangabe geschrieben wird.
+     */
+    public String getAlias() {
+        return alias;
+    }
+
+    /**
+     * Gibt an, ob das Feld {@code null} sein kann und deshalb {@code nulls first/last} berücksichtigt.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Findet ein Feld über seinen Alias oder Enum-Namen, ohne Beachtung der Gross-/Kleinschreibung.
+     *
+     * @throws IllegalArgumentException Falls es kein solches Feld gibt.
+     */
+    public static SortField parse(String text) {
+        for (SortField field : values()) {
+            if (field.alias.equalsIgnoreCase(text) || field.name().equalsIgnoreCase(text)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unbekanntes Sortierfeld: '" + text + "'");
+    }
+
+    @Override
+    public String toString() {
+        return alias;
+    }
+}
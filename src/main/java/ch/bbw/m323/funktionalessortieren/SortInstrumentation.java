@@ -0,0 +1,258 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Optionale Messung von Comparatoren und Sortieraufrufen.
+ *
+ * <p>Die Messung wird mit der System-Property {@value #ENABLED_PROPERTY} beim Start der JVM eingeschaltet
+ * ({@code -Dcountries.sort.instrumentation=true}). Ist sie ausgeschaltet, gibt {@link #instrument(Comparator)}
+ * den Comparator unverändert zurück und {@link #sort(List, Comparator)} ruft direkt {@link RadixSortEngine#sort}
+ * auf; da der Schalter eine Konstante ist, entfernt der JIT die Prüfungen vollständig.
+ *
+ * <p>Eingeschaltet werden pro Comparator-Name gezählt:
+ * <ul>
+ *     <li>Vergleiche und Vergleiche, bei denen ein Land oder dessen Sortierfeld {@code null} ist
+ *     ({@link LongAdder}, damit parallele Sortierungen sich nicht gegenseitig bremsen)</li>
+ *     <li>Sortieraufrufe, sortierte Elemente und die Laufzeit pro Aufruf als {@link LatencyHistogram}</li>
+ * </ul>
+ * Jeder Sortieraufruf erzeugt zusätzlich ein {@link CountrySortEvent}, das bei laufender
+ * JFR-Aufzeichnung in der Aufnahme erscheint. {@link #dump()} liefert alle Zähler im Textformat von Prometheus.
+ *
+ * <pre>
+ * Comparator&lt;Country&gt; comparator = SortInstrumentation.instrument(Country.BY_POPULATION_ASC);
+ * SortInstrumentation.sort(countries, comparator);
+ * System.out.print(SortInstrumentation.dump());
+ * </pre>
+ */
+public final class SortInstrumentation {
+
+    /** System-Property, welche die Messung einschaltet. */
+    public static final String ENABLED_PROPERTY = "countries.sort.instrumentation";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final double[] DUMP_QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final ConcurrentMap<String, Metrics> METRICS = new ConcurrentHashMap<>();
+
+    private SortInstrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Umhüllt einen Länder-Comparator mit Zählern. Name und {@code null}-Prüfung werden für die bekannten
+     * Reihenfolgen ({@link CountryOrdering}) abgeleitet, sonst aus der Klasse des Comparators.
+     */
+    public static Comparator<Country> instrument(Comparator<Country> comparator) {
+        if (!ENABLED) {
+            return comparator;
+        }
+        CountryOrdering ordering = CountryOrdering.of(comparator).orElse(null);
+        return instrument(nameOf(comparator), comparator, nullableField(ordering));
+    }
+
+    /**
+     * Umhüllt einen beliebigen Comparator mit Zählern.
+     *
+     * @param name       Name, unter dem die Zähler geführt werden.
+     * @param comparator Der eigentliche Comparator.
+     * @param nullField  Erkennt Elemente, bei denen der Comparator den {@code null}-Zweig nimmt;
+     *                   {@code null}-Elemente selbst werden immer gezählt.
+     */
+    public static <T> Comparator<T> instrument(String name, Comparator<T> comparator, Predicate<? super T> nullField) {
+        if (!ENABLED) {
+            return comparator;
+        }
+        return new InstrumentedComparator<>(name, comparator, nullField, metrics(name));
+    }
+
+    /**
+     * Sortiert die Liste wie {@link RadixSortEngine#sort(List, Comparator)} und misst den Aufruf.
+     */
+    public static void sort(List<Country> countries, Comparator<? super Country> comparator) {
+        RadixSortEngine.sort(countries, comparator);
+    }
+
+    /**
+     * Misst einen Sortieraufruf; wird von den Sortierverfahren nur aufgerufen, wenn {@link #isEnabled()}.
+     */
+    static void timed(String algorithm, Comparator<?> comparator, int size, Runnable sort) {
+        String name = nameOf(comparator);
+        CountrySortEvent event = new CountrySortEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            sort.run();
+        } finally {
+            long duration = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.comparator = name;
+                event.algorithm = algorithm;
+                event.size = size;
+                event.commit();
+            }
+            Metrics metrics = metrics(name);
+            metrics.sorts.increment();
+            metrics.sortedElements.add(size);
+            metrics.latency.record(duration);
+        }
+    }
+
+    /**
+     * Gibt eine Momentaufnahme aller Zähler zurück, sortiert nach Comparator-Name.
+     */
+    public static Map<String, SortStats> snapshot() {
+        Map<String, SortStats> result = new TreeMap<>();
+        METRICS.forEach((name, metrics) -> result.put(name, new SortStats(metrics.comparisons.sum(),
+                metrics.nullBranchHits.sum(), metrics.sorts.sum(), metrics.sortedElements.sum(), metrics.latency.copy())));
+        return result;
+    }
+
+    /**
+     * Gibt alle Zähler im Textformat von Prometheus zurück (Laufzeiten in Sekunden).
+     * Jede Metrik-Familie steht mit allen Comparatoren geschlossen unter ihrer {@code # TYPE}-Zeile.
+     */
+    public static String dump() {
+        return dump(snapshot());
+    }
+
+    static String dump(Map<String, SortStats> snapshot) {
+        StringBuilder out = new StringBuilder();
+        family(out, "country_sort_comparisons_total", "counter", snapshot, SortStats::comparisons);
+        family(out, "country_sort_null_branches_total", "counter", snapshot, SortStats::nullBranchHits);
+        family(out, "country_sort_elements_total", "counter", snapshot, SortStats::sortedElements);
+        out.append("# TYPE country_sort_duration_seconds summary\n");
+        snapshot.forEach((name, stats) -> {
+            String label = label(name);
+            for (double quantile : DUMP_QUANTILES) {
+                line(out, "country_sort_duration_seconds", label + ",quantile=\"" + quantile + "\"}",
+                        seconds(stats.latency().percentile(quantile)));
+            }
+            line(out, "country_sort_duration_seconds_sum", label + "}", seconds(stats.latency().sum()));
+            line(out, "country_sort_duration_seconds_count", label + "}", stats.sorts());
+        });
+        family(out, "country_sort_duration_seconds_max", "gauge", snapshot, stats -> seconds(stats.latency().max()));
+        return out.toString();
+    }
+
+    /**
+     * Setzt alle Zähler auf 0 zurück.
+     */
+    public static void reset() {
+        METRICS.values().forEach(Metrics::reset);
+    }
+
+    private static void family(StringBuilder out, String metric, String type, Map<String, SortStats> snapshot,
+                               Function<SortStats, Object> value) {
+        out.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+        snapshot.forEach((name, stats) -> line(out, metric, label(name) + "}", value.apply(stats)));
+    }
+
+    // Ohne schliessende Klammer, damit weitere Labels angehängt werden können
+    private static String label(String comparator) {
+        return "{comparator=\"" + comparator.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static void line(StringBuilder out, String metric, String labels, Object value) {
+        out.append(metric).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static Metrics metrics(String name) {
+        return METRICS.computeIfAbsent(name, ignored -> new Metrics());
+    }
+
+    static String nameOf(Comparator<?> comparator) {
+        if (comparator instanceof InstrumentedComparator<?> instrumented) {
+            return instrumented.name;
+        }
+        @SuppressWarnings("unchecked")
+        Comparator<? super Country> countryComparator = (Comparator<? super Country>) comparator;
+        return CountryOrdering.of(countryComparator).map(Enum::name).orElseGet(() -> {
+            String className = comparator.getClass().getName();
+            int lambda = className.indexOf("$$Lambda");
+            return lambda >= 0 ? className.substring(0, lambda) + "$$Lambda" : className;
+        });
+    }
+
+    private static Predicate<Country> nullableField(CountryOrdering ordering) {
+        if (ordering == null) {
+            return country -> false;
+        }
+        return switch (ordering) {
+            case NAME -> country -> country.getName() == null;
+            case UN_ACCESSION_DATE_ASC -> country -> country.getAccessionToUN() == null;
+            case NUMBER_OF_LANGUAGES_ASC -> country -> country.getNationalLanguages() == null;
+            case CONTINENT_THEN_POPULATION_DESC -> country -> country.getContinent() == null;
+            case POPULATION_ASC, AREA_DESC -> country -> false;
+        };
+    }
+
+    /**
+     * Zähler eines Comparators.
+     *
+     * @param comparisons    Anzahl Vergleiche.
+     * @param nullBranchHits Vergleiche, bei denen ein Element oder dessen Sortierfeld {@code null} war.
+     * @param sorts          Gemessene Sortieraufrufe.
+     * @param sortedElements Summe der Grössen aller gemessenen Sortieraufrufe.
+     * @param latency        Laufzeiten der Sortieraufrufe in Nanosekunden (Kopie).
+     */
+    public record SortStats(long comparisons, long nullBranchHits, long sorts, long sortedElements, LatencyHistogram latency) {
+    }
+
+    private static final class Metrics {
+        private final LongAdder comparisons = new LongAdder();
+        private final LongAdder nullBranchHits = new LongAdder();
+        private final LongAdder sorts = new LongAdder();
+        private final LongAdder sortedElements = new LongAdder();
+        private volatile LatencyHistogram latency = new LatencyHistogram();
+
+        void reset() {
+            comparisons.reset();
+            nullBranchHits.reset();
+            sorts.reset();
+            sortedElements.reset();
+            latency = new LatencyHistogram();
+        }
+    }
+
+    private static final class InstrumentedComparator<T> implements Comparator<T> {
+
+        private final String name;
+        private final Comparator<T> delegate;
+        private final Predicate<? super T> nullField;
+        private final Metrics metrics;
+
+        InstrumentedComparator(String name, Comparator<T> delegate, Predicate<? super T> nullField, Metrics metrics) {
+            this.name = Objects.requireNonNull(name);
+            this.delegate = delegate;
+            this.nullField = nullField;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public int compare(T o1, T o2) {
+            metrics.comparisons.increment();
+            if (o1 == null || o2 == null || nullField.test(o1) || nullField.test(o2)) {
+                metrics.nullBranchHits.increment();
+            }
+            return delegate.compare(o1, o2);
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Deklarative, mehrstufige Sortierangabe für Länder.
+ *
+ * <pre>
+ * SortSpec spec = SortSpec.by(SortField.CONTINENT).asc().then(SortField.AREA).desc();
+ * SortSpec same = SortSpec.parse("continent asc, area desc");
+ * list.sort(spec.compile());   // ein flacher Comparator ohne Lambda-Kette und Boxing
+ * spec.sort(list);             // gepackter long-Schlüssel mit Radix Sort, falls die Felder hineinpassen
+ * </pre>
+ *
+ * <p>Jede Stufe ist standardmässig aufsteigend mit {@code nulls last}. Die Richtung kehrt nur die
+ * Ordnung der vorhandenen Werte um; fehlende Werte bleiben an der angegebenen Position, wie bei
+ * {@code Comparator.nullsLast(Comparator.reverseOrder())}. Instanzen sind unveränderlich.
+ */
+public final class SortSpec {
+
+    private final List<Level> levels;
+
+    private SortSpec(List<Level> levels) {
+        this.levels = List.copyOf(levels);
+    }
+
+    /**
+     * Beginnt eine Sortierangabe mit dem übergebenen Feld (aufsteigend, nulls last).
+     */
+    public static SortSpec by(SortField field) {
+        return new SortSpec(List.of(new Level(field, false, false)));
+    }
+
+    /**
+     * Liest eine Sortierangabe der Form {@code "feld [asc|desc] [nulls first|last], ..."}.
+     * Gross-/Kleinschreibung spielt keine Rolle; Feldnamen siehe {@link SortField#getAlias()}.
+     *
+     * @throws IllegalArgumentException Falls die Angabe nicht gelesen werden kann.
+     */
+    public static SortSpec parse(String text) {
+        List<Level> levels = new ArrayList<>();
+        for (String clause : text.split(",", -1)) {
+            String[] tokens = clause.trim().toLowerCase(Locale.ROOT).split("\\s+");
+            if (tokens.length == 0 || tokens[0].isEmpty()) {
+                throw new IllegalArgumentException("Leere Sortierstufe in '" + text + "'");
+            }
+            SortField field = SortField.parse(tokens[0]);
+            boolean descending = false;
+            boolean nullsFirst = false;
+            int position = 1;
+            if (position < tokens.length && (tokens[position].equals("asc") || tokens[position].equals("desc"))) {
+                descending = tokens[position++].equals("desc");
+            }
+            if (position < tokens.length && tokens[position].equals("nulls")) {
+                if (position + 1 >= tokens.length || !(tokens[position + 1].equals("first") || tokens[position + 1].equals("last"))) {
+                    throw new IllegalArgumentException("Erwartet 'nulls first' oder 'nulls last' in '" + clause.trim() + "'");
+                }
+                nullsFirst = tokens[position + 1].equals("first");
+                position += 2;
+            }
+            if (position != tokens.length) {
+                throw new IllegalArgumentException("Unerwartetes Wort '" + tokens[position] + "' in '" + clause.trim() + "'");
+            }
+            levels.add(new Level(field, descending, nullsFirst));
+        }
+        return new SortSpec(levels);
+    }
+
+    /**
+     * Fügt eine weitere Stufe hinzu (aufsteigend, nulls last).
+     */
+    public SortSpec then(SortField field) {
+        List<Level> extended = new ArrayList<>(levels);
+        extended.add(new Level(field, false, false));
+        return new SortSpec(extended);
+    }
+
+    /** Sortiert die letzte Stufe aufsteigend. */
+    public SortSpec asc() {
+        Level last = last();
+        return withLast(new Level(last.field, false, last.nullsFirst));
+    }
+
+    /** Sortiert die letzte Stufe absteigend. */
+    public SortSpec desc() {
+        Level last = last();
+        return withLast(new Level(last.field, true, last.nullsFirst));
+    }
+
+    /** Stellt fehlende Werte der letzten Stufe an den Anfang. */
+    public SortSpec nullsFirst() {
+        Level last = last();
+        return withLast(new Level(last.field, last.descending, true));
+    }
+
+    /** Stellt fehlende Werte der letzten Stufe an das Ende. */
+    public SortSpec nullsLast() {
+        Level last = last();
+        return withLast(new Level(last.field, last.descending, false));
+    }
+
+    private Level last() {
+        return levels.get(levels.size() - 1);
+    }
+
+    private SortSpec withLast(Level level) {
+        List<Level> changed = new ArrayList<>(levels);
+        changed.set(changed.size() - 1, level);
+        return new SortSpec(changed);
+    }
+
+    /**
+     * Übersetzt die Angabe in einen einzigen Comparator, der alle Stufen in einer Schleife auf
+     * primitiven Werten vergleicht.
+     */
+    public Comparator<Country> compile() {
+        return new CompiledComparator(levels);
+    }
+
+    /**
+     * Sortiert die Liste stabil nach dieser Angabe. Passen alle Stufen gemeinsam in 64 Bit, wird pro Land
+     * einmal ein gepackter Schlüssel berechnet und mit Radix Sort sortiert; sonst wird {@link #compile()}
+     * verwendet. Das Ergebnis ist in beiden Fällen identisch.
+     */
+    public void sort(List<Country> countries) {
+        Country[] rows = countries.toArray(new Country[0]);
+        int[] order = sortedPermutation(new CountryArraySource(rows));
+        if (order == null) {
+            countries.sort(compile());
+            return;
+        }
+        ListIterator<Country> iterator = countries.listIterator();
+        for (int row : order) {
+            iterator.next();
+            iterator.set(rows[row]);
+        }
+    }
+
+    /**
+     * Sortiert die Zeilenindizes einer {@link CountryTable} stabil nach dieser Angabe.
+     */
+    public int[] sortedPermutation(CountryTable table) {
+        TableSource source = new TableSource(table);
+        int[] order = sortedPermutation(source);
+        if (order == null) {
+            order = table.identityPermutation();
+            IndexSort.sort(order, (row1, row2) -> compareRows(source, row1, row2));
+        }
+        return order;
+    }
+
+    /**
+     * Gibt zurück, ob die Angabe für diese Daten als gepackter Schlüssel sortiert werden kann.
+     */
+    public boolean fitsPackedKey(List<Country> countries) {
+        return packedLayout(new CountryArraySource(countries.toArray(new Country[0]))) != null;
+    }
+
+    // Gepackter Schlüssel mit Radix Sort, oder null, falls die Stufen nicht in 64 Bit passen
+    private int[] sortedPermutation(RowSource source) {
+        if (source.size() < RadixSortEngine.RADIX_THRESHOLD) {
+            return null;
+        }
+        PackedLayout layout = packedLayout(source);
+        if (layout == null) {
+            return null;
+        }
+        long[] keys = new long[source.size()];
+        for (int row = 0; row < keys.length; row++) {
+            long key = 0;
+            for (int level = 0; level < levels.size(); level++) {
+                key = (key << layout.bits[level]) | layout.encode(level, source, row);
+            }
+            keys[row] = key;
+        }
+        return RadixSortEngine.sortedOrder(keys.length, null, 0, keys);
+    }
+
+    /**
+     * Bestimmt pro Stufe den Wertebereich in den Daten und daraus die benötigten Bits.
+     */
+    private PackedLayout packedLayout(RowSource source) {
+        int n = levels.size();
+        long[] minimum = new long[n];
+        long[] span = new long[n];
+        int[] bits = new int[n];
+        int totalBits = 0;
+        for (int level = 0; level < n; level++) {
+            SortField field = levels.get(level).field;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int row = 0; row < source.size(); row++) {
+                if (!source.isNull(field, row)) {
+                    long value = rawValue(field, source, row);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            if (min > max) {
+                min = 0;
+                max = 0;
+            }
+            // span ist die Anzahl Werte ohne null; vorzeichenlos, falls der Bereich 63 Bit übersteigt
+            span[level] = max - min;
+            minimum[level] = min;
+            long largest = field.isNullable() ? span[level] + 1 : span[level];
+            if (field.isNullable() && span[level] == -1L) {
+                return null;
+            }
+            bits[level] = Long.SIZE - Long.numberOfLeadingZeros(largest);
+            totalBits += bits[level];
+            if (totalBits > Long.SIZE) {
+                return null;
+            }
+        }
+        return new PackedLayout(minimum, span, bits);
+    }
+
+    // Ganzzahliger Wert mit derselben Ordnung wie der Vergleich des Feldes (vorzeichenbehaftet)
+    private static long rawValue(SortField field, RowSource source, int row) {
+        return switch (field) {
+            case CONTINENT -> source.continentRank(row);
+            case POPULATION -> source.population(row);
+            case AREA -> RadixSortEngine.areaKey(source.area(row)) ^ Long.MIN_VALUE;
+            case UN_ACCESSION -> source.accessionEpochDay(row);
+            case LANGUAGES -> source.languageCount(row);
+            case NAME -> source.nameRank(row);
+        };
+    }
+
+    private int compareRows(RowSource source, int row1, int row2) {
+        for (Level level : levels) {
+            int result = level.compare(source, row1, row2);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    public List<SortField> fields() {
+        return levels.stream().map(level -> level.field).toList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SortSpec other && levels.equals(other.levels);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(levels);
+    }
+
+    /**
+     * Gibt die Angabe in der Form zurück, die {@link #parse(String)} versteht.
+     */
+    @Override
+    public String toString() {
+        return levels.stream().map(Level::toString).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Eine Sortierstufe.
+     */
+    private record Level(SortField field, boolean descending, boolean nullsFirst) {
+
+        int compare(RowSource source, int row1, int row2) {
+            if (field.isNullable()) {
+                boolean null1 = source.isNull(field, row1);
+                boolean null2 = source.isNull(field, row2);
+                if (null1 || null2) {
+                    if (null1 && null2) {
+                        return 0;
+                    }
+                    return null1 == nullsFirst ? -1 : 1;
+                }
+            }
+            int result = switch (field) {
+                case NAME -> source.compareNames(row1, row2);
+                case CONTINENT -> Integer.compare(source.continentRank(row1), source.continentRank(row2));
+                case POPULATION -> Long.compare(source.population(row1), source.population(row2));
+                case AREA -> Double.compare(source.area(row1), source.area(row2));
+                case UN_ACCESSION -> Long.compare(source.accessionEpochDay(row1), source.accessionEpochDay(row2));
+                case LANGUAGES -> Integer.compare(source.languageCount(row1), source.languageCount(row2));
+            };
+            return descending ? -result : result;
+        }
+
+        @Override
+        public String toString() {
+            String text = field.getAlias() + (descending ? " desc" : " asc");
+            return field.isNullable() ? text + (nullsFirst ? " nulls first" : " nulls last") : text;
+        }
+    }
+
+    /**
+     * Bitbreiten und Wertebereiche der gepackten Stufen.
+     */
+    private final class PackedLayout {
+
+        private final long[] minimum;
+        private final long[] span;
+        private final int[] bits;
+
+        PackedLayout(long[] minimum, long[] span, int[] bits) {
+            this.minimum = minimum;
+            this.span = span;
+            this.bits = bits;
+        }
+
+        long encode(int index, RowSource source, int row) {
+            Level level = levels.get(index);
+            if (level.field.isNullable() && source.isNull(level.field, row)) {
+                return level.nullsFirst ? 0 : span[index] + 1;
+            }
+            long value = rawValue(level.field, source, row) - minimum[index];
+            if (level.descending) {
+                value = span[index] - value;
+            }
+            return level.field.isNullable() && level.nullsFirst ? value + 1 : value;
+        }
+    }
+
+    /**
+     * Ein einziger Comparator für alle Stufen; vergleicht direkt über die Getter ohne Boxing.
+     */
+    private static final class CompiledComparator implements Comparator<Country> {
+
+        private final Level[] levels;
+
+        CompiledComparator(List<Level> levels) {
+            this.levels = levels.toArray(new Level[0]);
+        }
+
+        @Override
+        public int compare(Country c1, Country c2) {
+            for (Level level : levels) {
+                int result = compareLevel(level, c1, c2);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        }
+
+        private static int compareLevel(Level level, Country c1, Country c2) {
+            int result;
+            switch (level.field) {
+                case POPULATION -> result = Long.compare(c1.getPopulation(), c2.getPopulation());
+                case AREA -> result = Double.compare(c1.getAreaInSquareKm(), c2.getAreaInSquareKm());
+                case LANGUAGES -> result = Integer.compare(languageCount(c1), languageCount(c2));
+                case CONTINENT -> {
+                    Continent continent1 = c1.getContinent();
+                    Continent continent2 = c2.getContinent();
+                    if (continent1 == null || continent2 == null) {
+                        return compareNulls(level, continent1 == null, continent2 == null);
+                    }
+                    result = Integer.compare(continent1.getDisplayRank(), continent2.getDisplayRank());
+                }
+                case UN_ACCESSION -> {
+                    if (c1.getAccessionToUN() == null || c2.getAccessionToUN() == null) {
+                        return compareNulls(level, c1.getAccessionToUN() == null, c2.getAccessionToUN() == null);
+                    }
+                    result = c1.getAccessionToUN().compareTo(c2.getAccessionToUN());
+                }
+                case NAME -> {
+                    NameSortKey key1 = c1.getNameSortKey();
+                    NameSortKey key2 = c2.getNameSortKey();
+                    if (key1 == null || key2 == null) {
+                        return compareNulls(level, key1 == null, key2 == null);
+                    }
+                    result = key1.compareTo(key2);
+                }
+                default -> throw new IllegalStateException("Unbekanntes Feld " + level.field);
+            }
+            return level.descending ? -result : result;
+        }
+
+        private static int compareNulls(Level level, boolean null1, boolean null2) {
+            if (null1 && null2) {
+                return 0;
+            }
+            return null1 == level.nullsFirst ? -1 : 1;
+        }
+
+        private static int languageCount(Country country) {
+            List<String> languages = country.getNationalLanguages();
+            return languages != null ? languages.size() : 0;
+        }
+    }
+
+    /**
+     * Zeilenweiser Zugriff auf die Sortierfelder, entweder über {@code Country}-Objekte oder eine {@link CountryTable}.
+     */
+    private interface RowSource {
+        int size();
+
+        boolean isNull(SortField field, int row);
+
+        /**
+         * Vergleicht zwei vorhandene Namen in der natürlichen Ordnung von {@link Country}.
+         */
+        int compareNames(int row1, int row2);
+
+        /**
+         * Gibt den Rang des vorhandenen Namens zurück ({@link CountryTable#nameRanks()}); gleichwertige Namen
+         * haben denselben Rang.
+         */
+        int nameRank(int row);
+
+        int continentRank(int row);
+
+        long population(int row);
+
+        double area(int row);
+
+        /**
+         * Gibt den Epoch-Day eines vorhandenen UN-Beitrittsdatums zurück.
+         */
+        long accessionEpochDay(int row);
+
+        int languageCount(int row);
+    }
+
+    private static final class CountryArraySource implements RowSource {
+
+        private final Country[] rows;
+        private int[] nameRanks;
+
+        CountryArraySource(Country[] rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+
+        @Override
+        public boolean isNull(SortField field, int row) {
+            Country country = rows[row];
+            return switch (field) {
+                case NAME -> country.getName() == null;
+                case CONTINENT -> country.getContinent() == null;
+                case UN_ACCESSION -> country.getAccessionToUN() == null;
+                default -> false;
+            };
+        }
+
+        @Override
+        public int compareNames(int row1, int row2) {
+            return rows[row1].getNameSortKey().compareTo(rows[row2].getNameSortKey());
+        }
+
+        @Override
+        public int nameRank(int row) {
+            // Erst beim Packen eines Namens berechnet; der Comparator-Weg vergleicht direkt die Sortierschlüssel
+            if (nameRanks == null) {
+                String[] names = new String[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    names[i] = rows[i].getName();
+                }
+                nameRanks = CountryTable.nameRanks(names);
+            }
+            return nameRanks[row];
+        }
+
+        @Override
+        public int continentRank(int row) {
+            return CountryTable.continentRank(rows[row].getContinent());
+        }
+
+        @Override
+        public long population(int row) {
+            return rows[row].getPopulation();
+        }
+
+        @Override
+        public double area(int row) {
+            return rows[row].getAreaInSquareKm();
+        }
+
+        @Override
+        public long accessionEpochDay(int row) {
+            // Direkt als long, damit auch Daten ausserhalb des int-Bereichs der Tabelle sortiert werden können
+            return rows[row].getAccessionToUN().toEpochDay();
+        }
+
+        @Override
+        public int languageCount(int row) {
+            return CompiledComparator.languageCount(rows[row]);
+        }
+    }
+
+    private static final class TableSource implements RowSource {
+
+        private final CountryTable table;
+        private int[] nameRanks;
+
+        TableSource(CountryTable table) {
+            this.table = table;
+        }
+
+        @Override
+        public int size() {
+            return table.size();
+        }
+
+        @Override
+        public boolean isNull(SortField field, int row) {
+            return switch (field) {
+                case NAME -> table.name(row) == null;
+                case CONTINENT -> table.continent(row) == null;
+                case UN_ACCESSION -> table.accessionEpochDay(row) == CountryTable.NO_ACCESSION;
+                default -> false;
+            };
+        }
+
+        @Override
+        public int compareNames(int row1, int row2) {
+            return Integer.compare(nameRank(row1), nameRank(row2));
+        }
+
+        @Override
+        public int nameRank(int row) {
+            // Die Ränge gehören der Tabelle und werden von allen Sortierangaben geteilt
+            if (nameRanks == null) {
+                nameRanks = table.nameRanks();
+            }
+            return nameRanks[row];
+        }
+
+        @Override
+        public int continentRank(int row) {
+            return CountryTable.continentRank(table.continent(row));
+        }
+
+        @Override
+        public long population(int row) {
+            return table.population(row);
+        }
+
+        @Override
+        public double area(int row) {
+            return table.area(row);
+        }
+
+        @Override
+        public long accessionEpochDay(int row) {
+            return table.accessionEpochDay(row);
+        }
+
+        @Override
+        public int languageCount(int row) {
+            return table.languageCount(row);
+        }
+    }
+}
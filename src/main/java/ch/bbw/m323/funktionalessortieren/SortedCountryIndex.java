@@ -0,0 +1,267 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Eine Sammlung von Ländern mit zwischengespeicherten, sortierten Sichten pro registriertem Comparator.
+ *
+ * <p>Eine Sicht wird erst beim ersten Zugriff sortiert und danach wiederverwendet. Ändert sich ein Land
+ * über {@link #update(Country, Consumer)}, wird es in jeder vorhandenen Sicht per Binärsuche entfernt und
+ * an der neuen Position wieder eingefügt, statt die Sicht neu zu sortieren. Wird ein Land ausserhalb des
+ * Index verändert, muss {@link #invalidate(Country)} aufgerufen werden; die Sichten werden dann beim
+ * nächsten Zugriff neu aufgebaut.
+ *
+ * <p>Gleichwertige Länder stehen in jeder Sicht in der Reihenfolge, in der sie dem Index hinzugefügt
+ * wurden. Eine Sicht entspricht damit immer {@code List.sort} auf der Einfügereihenfolge, egal ob sie
+ * repariert oder neu aufgebaut wurde.
+ *
+ * <p>Übersteigt der geschätzte Speicherbedarf aller Sichten das Budget, werden die am längsten nicht
+ * benutzten Sichten verworfen. Die Klasse ist nicht threadsicher.
+ */
+public final class SortedCountryIndex {
+
+    // Referenz im Array der Sicht plus Anteil am Objektkopf der Liste
+    private static final long BYTES_PER_ENTRY = 8;
+
+    private final List<Country> countries = new ArrayList<>();
+    private final Map<Country, Long> sequences = new IdentityHashMap<>();
+    private final Map<Comparator<? super Country>, View> views = new LinkedHashMap<>(16, 0.75f, true);
+    private final long memoryBudget;
+    private long nextSequence;
+
+    private long hits;
+    private long misses;
+    private long rebuilds;
+    private long repairs;
+    private long evictions;
+
+    /**
+     * Erstellt einen leeren Index.
+     *
+     * @param memoryBudget Maximaler geschätzter Speicherbedarf aller zwischengespeicherten Sichten in Bytes.
+     */
+    public SortedCountryIndex(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Das Speicherbudget muss positiv sein: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Erstellt einen Index mit den übergebenen Ländern.
+     */
+    public SortedCountryIndex(Collection<Country> countries, long memoryBudget) {
+        this(memoryBudget);
+        countries.forEach(this::add);
+    }
+
+    /**
+     * Registriert einen Comparator. Die Sicht wird erst beim ersten Aufruf von {@link #sorted(Comparator)} aufgebaut.
+     */
+    public SortedCountryIndex register(Comparator<? super Country> comparator) {
+        views.putIfAbsent(comparator, new View(comparator));
+        return this;
+    }
+
+    /**
+     * Gibt die nach dem Comparator sortierten Länder zurück. Die Liste ist nicht veränderbar und
+     * nur bis zur nächsten Änderung des Index gültig.
+     *
+     * @throws IllegalArgumentException Falls der Comparator nicht registriert ist.
+     */
+    public List<Country> sorted(Comparator<? super Country> comparator) {
+        View view = views.get(comparator);
+        if (view == null) {
+            throw new IllegalArgumentException("Comparator ist nicht registriert: " + comparator);
+        }
+        if (view.sorted != null) {
+            hits++;
+        } else {
+            misses++;
+            rebuild(view);
+            evictIfNecessary(view);
+        }
+        return Collections.unmodifiableList(view.sorted);
+    }
+
+    /**
+     * Fügt ein Land hinzu und sortiert es in alle vorhandenen Sichten ein.
+     */
+    public void add(Country country) {
+        if (sequences.putIfAbsent(country, nextSequence) != null) {
+            throw new IllegalArgumentException("Land ist bereits im Index: " + country);
+        }
+        nextSequence++;
+        countries.add(country);
+        for (View view : views.values()) {
+            if (view.sorted != null) {
+                view.insert(country);
+                repairs++;
+            }
+        }
+        evictIfNecessary(null);
+    }
+
+    /**
+     * Entfernt ein Land (Vergleich über Identität) aus dem Index und allen Sichten.
+     *
+     * @return {@code true}, falls das Land im Index war.
+     */
+    public boolean remove(Country country) {
+        if (!sequences.containsKey(country)) {
+            return false;
+        }
+        for (View view : views.values()) {
+            if (view.sorted != null) {
+                view.remove(country);
+                repairs++;
+            }
+        }
+        sequences.remove(country);
+        removeByIdentity(countries, country);
+        return true;
+    }
+
+    /**
+     * Verändert ein Land und repariert nur dessen Position in den vorhandenen Sichten.
+     *
+     * <pre>
+     * index.update(schweiz, c -&gt; c.setPopulation(9_000_000));
+     * </pre>
+     *
+     * Wirft die Mutation eine Exception, wird das Land trotzdem in alle Sichten zurückgelegt, bevor die Exception
+     * weitergegeben wird.
+     */
+    public void update(Country country, Consumer<Country> mutation) {
+        if (!sequences.containsKey(country)) {
+            throw new IllegalArgumentException("Land ist nicht im Index: " + country);
+        }
+        List<View> repaired = new ArrayList<>();
+        for (View view : views.values()) {
+            if (view.sorted != null) {
+                view.remove(country);
+                repaired.add(view);
+            }
+        }
+        try {
+            mutation.accept(country);
+        } finally {
+            // Auch wenn die Mutation scheitert, gehört das Land (im jetzigen Zustand) wieder in jede Sicht
+            for (View view : repaired) {
+                view.insert(country);
+                repairs++;
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle Sichten, weil sich ein Land ausserhalb von {@link #update(Country, Consumer)} verändert hat.
+     */
+    public void invalidate(Country country) {
+        if (sequences.containsKey(country)) {
+            for (View view : views.values()) {
+                view.sorted = null;
+            }
+        }
+    }
+
+    public int size() {
+        return countries.size();
+    }
+
+    /**
+     * Gibt eine Momentaufnahme der Cache-Zähler zurück.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits, misses, rebuilds, repairs, evictions);
+    }
+
+    private void rebuild(View view) {
+        List<Country> sorted = new ArrayList<>(countries);
+        // countries steht in Einfügereihenfolge, der stabile Sort ergibt also dieselbe Ordnung wie view.order
+        RadixSortEngine.sort(sorted, view.comparator);
+        view.sorted = sorted;
+        rebuilds++;
+    }
+
+    private void evictIfNecessary(View keep) {
+        long used = 0;
+        for (View view : views.values()) {
+            if (view.sorted != null) {
+                used += view.sorted.size() * BYTES_PER_ENTRY;
+            }
+        }
+        // Iteration in Zugriffsreihenfolge: die am längsten nicht benutzte Sicht zuerst
+        Iterator<View> iterator = views.values().iterator();
+        while (used > memoryBudget && iterator.hasNext()) {
+            View view = iterator.next();
+            if (view.sorted != null && view != keep) {
+                used -= view.sorted.size() * BYTES_PER_ENTRY;
+                view.sorted = null;
+                evictions++;
+            }
+        }
+    }
+
+    private static void removeByIdentity(List<Country> list, Country country) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (list.get(i) == country) {
+                list.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Zähler des Sicht-Caches.
+     *
+     * @param hits      Zugriffe auf eine bereits sortierte Sicht.
+     * @param misses    Zugriffe, für die eine Sicht aufgebaut werden musste.
+     * @param rebuilds  Vollständige Sortierungen einer Sicht.
+     * @param repairs   Einzelne Einfüge- oder Entfernoperationen in einer bestehenden Sicht.
+     * @param evictions Wegen des Speicherbudgets verworfene Sichten.
+     */
+    public record CacheStats(long hits, long misses, long rebuilds, long repairs, long evictions) {
+    }
+
+    /**
+     * Eine sortierte Sicht. {@code sorted == null} bedeutet: noch nicht aufgebaut, veraltet oder verworfen.
+     */
+    private final class View {
+
+        private final Comparator<? super Country> comparator;
+        // Totale Ordnung: Comparator, bei Gleichheit die Einfügereihenfolge
+        private final Comparator<Country> order;
+        private List<Country> sorted;
+
+        View(Comparator<? super Country> comparator) {
+            this.comparator = comparator;
+            this.order = (c1, c2) -> {
+                int result = comparator.compare(c1, c2);
+                return result != 0 ? result : Long.compare(sequences.get(c1), sequences.get(c2));
+            };
+        }
+
+        void insert(Country country) {
+            int position = Collections.binarySearch(sorted, country, order);
+            sorted.add(position >= 0 ? position : -position - 1, country);
+        }
+
+        void remove(Country country) {
+            int position = Collections.binarySearch(sorted, country, order);
+            if (position < 0 || sorted.get(position) != country) {
+                throw new IllegalStateException("Sicht ist inkonsistent, wurde das Land ohne invalidate() verändert? " + country);
+            }
+            sorted.remove(position);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Ermittelt die ersten {@code k} Elemente einer Sortierreihenfolge, ohne die ganze Eingabe zu sortieren.
+ *
+ * <p>Das Ergebnis entspricht {@code stream.sorted(comparator).limit(k)}, inklusive der stabilen Reihenfolge
+ * gleichwertiger Elemente. Intern wird ein begrenzter Heap mit höchstens {@code k} Elementen geführt,
+ * wodurch der Aufwand O(n log k) beträgt und nie mehr als {@code k} Elemente gepuffert werden.
+ *
+ * <pre>
+ * // Die 20 bevölkerungsreichsten Länder pro Kontinent
+ * TopK.perContinent(countries, 20, Country.BY_POPULATION_ASC.reversed());
+ * // Die 10 grössten Länder nach Fläche
+ * countries.stream().collect(TopK.collector(10, Country.BY_AREA_DESC));
+ * </pre>
+ *
+ * @param <T> Typ der Elemente.
+ */
+public final class TopK<T> implements Consumer<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    // Max-Heap: an der Wurzel steht das schlechteste der behaltenen Elemente
+    private Object[] heap;
+    private long[] sequences;
+    private int size;
+    private long seen;
+
+    /**
+     * Erstellt einen leeren Akkumulator.
+     *
+     * @param k          Maximale Anzahl Elemente im Ergebnis.
+     * @param comparator Die Sortierreihenfolge; behalten werden die ersten {@code k} Elemente.
+     */
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k darf nicht negativ sein: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        int initialCapacity = Math.min(k, 16);
+        this.heap = new Object[initialCapacity];
+        this.sequences = new long[initialCapacity];
+    }
+
+    /**
+     * Gibt die ersten {@code k} Elemente in Sortierreihenfolge zurück.
+     */
+    public static <T> List<T> of(Iterable<? extends T> elements, int k, Comparator<? super T> comparator) {
+        TopK<T> topK = new TopK<>(k, comparator);
+        for (T element : elements) {
+            topK.accept(element);
+        }
+        return topK.toList();
+    }
+
+    /**
+     * Collector, der die ersten {@code k} Elemente eines Streams sammelt. Funktioniert auch mit
+     * parallelen Streams; die Reihenfolge gleichwertiger Elemente folgt dann der Encounter-Order.
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> comparator) {
+        return Collector.of(() -> new TopK<T>(k, comparator), TopK::accept, TopK::merge, TopK::toList);
+    }
+
+    /**
+     * Gibt pro Kontinent die ersten {@code k} Länder in einem einzigen Durchgang zurück.
+     * Länder ohne Kontinent werden ignoriert.
+     */
+    public static EnumMap<Continent, List<Country>> perContinent(Iterable<Country> countries, int k,
+                                                                 Comparator<? super Country> comparator) {
+        ContinentTopK topK = new ContinentTopK(k, comparator);
+        for (Country country : countries) {
+            topK.accept(country);
+        }
+        return topK.toMap();
+    }
+
+    /**
+     * Collector-Variante von {@link #perContinent(Iterable, int, Comparator)}.
+     */
+    public static Collector<Country, ?, EnumMap<Continent, List<Country>>> perContinentCollector(
+            int k, Comparator<? super Country> comparator) {
+        return Collector.of(() -> new ContinentTopK(k, comparator), ContinentTopK::accept, ContinentTopK::merge, ContinentTopK::toMap);
+    }
+
+    @Override
+    public void accept(T element) {
+        offer(element, seen++);
+    }
+
+    /**
+     * Übernimmt die Elemente eines Akkumulators, dessen Eingabe auf die Eingabe dieses Akkumulators folgt.
+     */
+    public TopK<T> merge(TopK<T> other) {
+        long offset = seen;
+        for (int i = 0; i < other.size; i++) {
+            offer(other.element(i), offset + other.sequences[i]);
+        }
+        seen += other.seen;
+        return this;
+    }
+
+    /**
+     * Gibt die aktuell behaltenen Elemente in Sortierreihenfolge zurück.
+     */
+    public List<T> toList() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> compare(i1, i2));
+        List<T> result = new ArrayList<>(size);
+        for (int index : order) {
+            result.add(element(index));
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void offer(T element, long sequence) {
+        if (k == 0) {
+            return;
+        }
+        if (size < k) {
+            if (size == heap.length) {
+                int capacity = (int) Math.min(k, heap.length * 2L);
+                heap = Arrays.copyOf(heap, capacity);
+                sequences = Arrays.copyOf(sequences, capacity);
+            }
+            heap[size] = element;
+            sequences[size] = sequence;
+            siftUp(size++);
+        } else if (compare(element, sequence, element(0), sequences[0]) < 0) {
+            heap[0] = element;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(index, parent) <= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && compare(left, largest) > 0) {
+                largest = left;
+            }
+            if (right < size && compare(right, largest) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    private int compare(int index1, int index2) {
+        return compare(element(index1), sequences[index1], element(index2), sequences[index2]);
+    }
+
+    // Bei Gleichheit gilt das später gesehene Element als schlechter (stabile Reihenfolge)
+    private int compare(T element1, long sequence1, T element2, long sequence2) {
+        int result = comparator.compare(element1, element2);
+        return result != 0 ? result : Long.compare(sequence1, sequence2);
+    }
+
+    private void swap(int index1, int index2) {
+        Object element = heap[index1];
+        heap[index1] = heap[index2];
+        heap[index2] = element;
+        long sequence = sequences[index1];
+        sequences[index1] = sequences[index2];
+        sequences[index2] = sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int index) {
+        return (T) heap[index];
+    }
+
+    /**
+     * Ein {@link TopK} pro Kontinent, angelegt beim ersten Land des Kontinents.
+     */
+    private static final class ContinentTopK implements Consumer<Country> {
+
+        private final int k;
+        private final Comparator<? super Country> comparator;
+        private final EnumMap<Continent, TopK<Country>> perContinent = new EnumMap<>(Continent.class);
+
+        ContinentTopK(int k, Comparator<? super Country> comparator) {
+            this.k = k;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public void accept(Country country) {
+            Continent continent = country.getContinent();
+            if (continent != null) {
+                perContinent.computeIfAbsent(continent, ignored -> new TopK<>(k, comparator)).accept(country);
+            }
+        }
+
+        ContinentTopK merge(ContinentTopK other) {
+            other.perContinent.forEach((continent, topK) ->
+                    perContinent.merge(continent, topK, TopK::merge));
+            return this;
+        }
+
+        EnumMap<Continent, List<Country>> toMap() {
+            EnumMap<Continent, List<Country>> result = new EnumMap<>(Continent.class);
+            perContinent.forEach((continent, topK) -> result.put(continent, topK.toList()));
+            return result;
+        }
+    }
+}
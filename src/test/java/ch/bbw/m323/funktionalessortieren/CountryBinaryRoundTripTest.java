@@ -0,0 +1,109 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryBinaryRoundTripTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsGeneratedCountries() throws IOException {
+        List<Country> countries = DataGenerator.generateCountries(2_000);
+
+        assertEquals(countries, roundTrip(countries));
+    }
+
+    @Test
+    void writeCountriesMatchesFastGeneration() throws IOException {
+        Path file = directory.resolve("generated.bin");
+        try (CountryBinaryWriter writer = CountryBinaryWriter.create(file)) {
+            DataGenerator.writeCountries(5_000, writer);
+        }
+
+        assertEquals(DataGenerator.generateCountriesFast(5_000), CountryBinaryReader.open(file).countries().toList());
+    }
+
+    @Test
+    void roundTripsMissingFields() throws IOException {
+        Country empty = new Country(null, null, 0, 0.0, null, null);
+
+        List<Country> read = roundTrip(List.of(empty));
+
+        assertEquals(List.of(empty), read);
+        Country country = read.get(0);
+        assertNull(country.getName());
+        assertNull(country.getContinent());
+        assertNull(country.getAccessionToUN());
+        assertNull(country.getNationalLanguages());
+    }
+
+    @Test
+    void distinguishesEmptyFromMissingLanguages() throws IOException {
+        Country withoutLanguages = new Country("Leerland", Continent.values()[0], 1, 1.0, LocalDate.of(1945, 10, 24), new ArrayList<>());
+        Country unknownLanguages = new Country("Unbekannt", Continent.values()[0], 1, 1.0, LocalDate.of(1945, 10, 24), null);
+        Path file = write(List.of(withoutLanguages, unknownLanguages));
+
+        CountryBinaryReader reader = CountryBinaryReader.open(file);
+        int[] offsets = reader.recordOffsets();
+
+        assertTrue(reader.view(offsets[0]).hasLanguages());
+        assertEquals(0, reader.view(offsets[0]).languageCount());
+        assertFalse(reader.view(offsets[1]).hasLanguages());
+        assertEquals(List.of(withoutLanguages, unknownLanguages), reader.countries().toList());
+    }
+
+    @Test
+    void roundTripsNamesOutsideTheBasicMultilingualPlane() throws IOException {
+        Country country = new Country("𝔊𝔯𝔬𝔰𝔰 😀 Zürich", Continent.values()[1],
+                42, 3.5, LocalDate.of(2000, 2, 29), new ArrayList<>(List.of("Deutsch", "😀")));
+        Path file = write(List.of(country));
+
+        CountryBinaryReader reader = CountryBinaryReader.open(file);
+        CountryRecordView view = reader.view(reader.recordOffsets()[0]);
+
+        assertEquals(country.getName(), view.name());
+        assertEquals(List.of(country), reader.countries().toList());
+    }
+
+    @Test
+    void rejectedCountryLeavesNoPartialRecord() throws IOException {
+        Country before = new Country("Vorher", Continent.values()[0], 1, 1.0, LocalDate.of(1945, 10, 24), new ArrayList<>(List.of("Deutsch")));
+        Country after = new Country("Nachher", Continent.values()[1], 2, 2.0, null, new ArrayList<>(List.of("Englisch")));
+        Path file = directory.resolve("abgelehnt.bin");
+        try (CountryBinaryWriter writer = CountryBinaryWriter.create(file)) {
+            writer.write(before);
+            // Das Datum passt nicht in den int-Epoch-Day des Formats
+            assertThrows(IllegalArgumentException.class, () -> writer.write(
+                    new Country("Zu spät", null, 3, 3.0, LocalDate.MAX, new ArrayList<>(List.of("Neu")))));
+            writer.write(after);
+        }
+
+        assertEquals(List.of(before, after), CountryBinaryReader.open(file).countries().toList());
+    }
+
+    private List<Country> roundTrip(List<Country> countries) throws IOException {
+        return CountryBinaryReader.open(write(countries)).countries().toList();
+    }
+
+    private Path write(List<Country> countries) throws IOException {
+        Path file = directory.resolve("countries.bin");
+        try (CountryBinaryWriter writer = CountryBinaryWriter.create(file)) {
+            writer.writeAll(countries);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,113 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CountryCsvRoundTripTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsGeneratedCountries() throws IOException {
+        List<Country> countries = DataGenerator.generateCountries(2_000);
+
+        assertEquals(countries, CountryCsvReader.read(write("generiert.csv", countries)));
+    }
+
+    @Test
+    void roundTripsQuotedFields() throws IOException {
+        List<Country> countries = List.of(
+                new Country("Zürich, \"Stadt\"\nneu", Continent.values()[0], 1, 2.5, LocalDate.of(1945, 10, 24),
+                        new ArrayList<>(List.of("a,b", "\"x\"", "Zeile\r\numbruch"))),
+                new Country("Ende mit Komma,", Continent.values()[1], -5, 1e-9, LocalDate.of(9999, 12, 31),
+                        new ArrayList<>(List.of("日本語", "😀"))));
+
+        assertEquals(countries, CountryCsvReader.read(write("zitiert.csv", countries)));
+    }
+
+    @Test
+    void distinguishesEmptyFromMissingFields() throws IOException {
+        Country empty = new Country("", Continent.values()[0], 0, 0.0, LocalDate.of(1, 1, 1), new ArrayList<>());
+        Country missing = new Country(null, null, 0, 0.0, null, null);
+
+        List<Country> read = CountryCsvReader.read(write("leer.csv", List.of(empty, missing)));
+
+        assertEquals(List.of(empty, missing), read);
+        assertEquals("", read.get(0).getName());
+        assertEquals(List.of(), read.get(0).getNationalLanguages());
+        assertNull(read.get(1).getName());
+        assertNull(read.get(1).getContinent());
+        assertNull(read.get(1).getAccessionToUN());
+        assertNull(read.get(1).getNationalLanguages());
+    }
+
+    @Test
+    void tableWriteMatchesCountryWrite() throws IOException {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(5_000));
+        countries.add(new Country("Zürich, \"Stadt\"", null, 1, 2.5, null, null));
+        countries.add(new Country("", Continent.values()[0], 0, 0.0, LocalDate.of(1, 1, 1), new ArrayList<>()));
+        CountryTable table = CountryTable.of(countries);
+        Path fromTable = directory.resolve("tabelle.csv");
+        try (CountryCsvWriter writer = CountryCsvWriter.create(fromTable)) {
+            writer.writeAll(table, table.identityPermutation());
+        }
+
+        assertArrayEquals(Files.readAllBytes(write("laender.csv", countries)), Files.readAllBytes(fromTable));
+    }
+
+    @Test
+    void readsCarriageReturnLineEndings() throws IOException {
+        String csv = CountryCsvWriter.HEADER + "\r\nAlbarien,EUROPA,8123456,41285.5,1955-12-14,Deutsch;Französisch\r\n";
+
+        assertEquals(List.of(new Country("Albarien", Continent.EUROPA, 8_123_456, 41_285.5, LocalDate.of(1955, 12, 14),
+                List.of("Deutsch", "Französisch"))), CountryCsvReader.read(new StringReader(csv)));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> CountryCsvReader.read(new StringReader("name,continent\n")));
+        assertThrows(IllegalArgumentException.class, () -> CountryCsvReader.read(new StringReader(
+                CountryCsvWriter.HEADER + "\nAlbarien,EUROPA,1\n")));
+        assertThrows(IllegalArgumentException.class, () -> CountryCsvReader.read(new StringReader(
+                CountryCsvWriter.HEADER + "\nAlbarien,ATLANTIS,1,1.0,,\n")));
+        assertThrows(IllegalArgumentException.class, () -> CountryCsvReader.read(new StringReader(
+                CountryCsvWriter.HEADER + "\n\"offen,EUROPA,1,1.0,,\n")));
+    }
+
+    @Test
+    void rejectedLanguagesLeaveNoPartialRow() throws IOException {
+        Country valid = new Country("Albarien", Continent.EUROPA, 1, 1.0, null, new ArrayList<>(List.of("Deutsch")));
+        Path file = directory.resolve("sprachen.csv");
+        try (CountryCsvWriter writer = CountryCsvWriter.create(file)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write(new Country("A", null, 1, 1.0, null,
+                    new ArrayList<>(List.of("Deutsch;Französisch")))));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(new Country("B", null, 1, 1.0, null,
+                    new ArrayList<>(List.of("")))));
+            writer.write(valid);
+        }
+
+        assertEquals(List.of(valid), CountryCsvReader.read(file));
+    }
+
+    private Path write(String name, List<Country> countries) throws IOException {
+        Path file = directory.resolve(name);
+        try (CountryCsvWriter writer = CountryCsvWriter.create(file)) {
+            writer.writeAll(countries);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,204 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import ch.bbw.m323.funktionalessortieren.CountryQueryEngine.Measure;
+import ch.bbw.m323.funktionalessortieren.CountryQueryEngine.Summary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryQueryEngineTest {
+
+    // 140'000 Zeilen ergeben mehrere parallel ausgewertete Blöcke
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 300, 140_000})
+    void summariesMatchStreamPipelines(int size) {
+        List<Country> countries = countriesWithGaps(size);
+        CountryQueryEngine engine = new CountryQueryEngine(CountryTable.of(countries));
+
+        for (Measure measure : Measure.values()) {
+            Map<Continent, Summary> byContinent = engine.summarizeByContinent(measure);
+            for (Continent continent : Continent.values()) {
+                List<Country> part = countries.stream().filter(c -> c.getContinent() == continent).toList();
+                assertSummary(part, measure, byContinent.get(continent));
+            }
+            assertSummary(countries, measure, engine.summarize(measure));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 300, 140_000})
+    void percentilesUseNearestRank(int size) {
+        List<Country> countries = countriesWithGaps(size);
+        CountryQueryEngine engine = new CountryQueryEngine(CountryTable.of(countries));
+
+        for (Continent continent : new Continent[]{null, Continent.values()[0], Continent.values()[3]}) {
+            double[] populations = countries.stream()
+                    .filter(c -> continent == null || c.getContinent() == continent)
+                    .mapToDouble(Country::getPopulation).sorted().toArray();
+            double[] areas = countries.stream()
+                    .filter(c -> continent == null || c.getContinent() == continent)
+                    .mapToDouble(Country::getAreaInSquareKm).sorted().toArray();
+            for (double quantile : new double[]{0, 0.25, 0.5, 0.9, 1}) {
+                assertEquals(nearestRank(populations, quantile), engine.percentile(Measure.POPULATION, continent, quantile));
+                assertEquals(nearestRank(areas, quantile), engine.percentile(Measure.AREA, continent, quantile));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 300, 140_000})
+    void rangeQueriesMatchStreamFilters(int size) {
+        List<Country> countries = countriesWithGaps(size);
+        CountryTable table = CountryTable.of(countries);
+        CountryQueryEngine engine = new CountryQueryEngine(table);
+        LocalDate from = LocalDate.of(1960, 1, 1);
+        LocalDate to = LocalDate.of(1979, 12, 31);
+
+        // Stream#sorted ist stabil, gleiche Werte bleiben also in Tabellenreihenfolge
+        assertEquals(countries.stream()
+                        .filter(c -> c.getPopulation() >= 1_000_000 && c.getPopulation() <= 50_000_000)
+                        .sorted(Country.BY_POPULATION_ASC)
+                        .toList(),
+                table.toList(engine.populationBetween(1_000_000, 50_000_000)));
+        assertEquals(countries.stream()
+                        .filter(c -> c.getAreaInSquareKm() >= 1_000 && c.getAreaInSquareKm() <= 500_000)
+                        .sorted(Comparator.comparingDouble(Country::getAreaInSquareKm))
+                        .toList(),
+                table.toList(engine.areaBetween(1_000, 500_000)));
+        assertEquals(countries.stream()
+                        .filter(c -> c.getAccessionToUN() != null)
+                        .filter(c -> !c.getAccessionToUN().isBefore(from) && !c.getAccessionToUN().isAfter(to))
+                        .sorted(Country.BY_UN_ACCESSION_DATE_ASC)
+                        .toList(),
+                table.toList(engine.accessionBetween(from, to)));
+        assertEquals(countries.stream().filter(c -> c.getContinent() == Continent.values()[1]).toList(),
+                table.toList(engine.continent(Continent.values()[1])));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 300, 140_000})
+    void decadeCountsMatchGroupingBy(int size) {
+        List<Country> countries = countriesWithGaps(size);
+        CountryQueryEngine engine = new CountryQueryEngine(CountryTable.of(countries));
+
+        assertEquals(countries.stream()
+                        .filter(c -> c.getAccessionToUN() != null)
+                        .collect(Collectors.groupingBy(c -> Math.floorDiv(c.getAccessionToUN().getYear(), 10) * 10,
+                                TreeMap::new, Collectors.counting())),
+                engine.countByAccessionDecade());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 300, 140_000})
+    void orderByMatchesListSort(int size) {
+        List<Country> countries = countriesWithGaps(size);
+        CountryTable table = CountryTable.of(countries);
+        CountryQueryEngine engine = new CountryQueryEngine(table);
+        List<Comparator<Country>> comparators = List.of(Country.BY_AREA_DESC, new SortByContinentThenPopulationDesc(),
+                Comparator.comparing(Country::getName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        int[][] subsets = {engine.populationBetween(1_000_000, 50_000_000),
+                engine.continent(Continent.values()[0]), table.identityPermutation()};
+
+        for (Comparator<Country> comparator : comparators) {
+            for (int[] rows : subsets) {
+                int[] inTableOrder = rows.clone();
+                Arrays.sort(inTableOrder);
+                List<Country> expected = new ArrayList<>(table.toList(inTableOrder));
+                expected.sort(comparator);
+
+                assertEquals(expected, table.toList(engine.orderBy(rows, comparator)));
+            }
+        }
+    }
+
+    @Test
+    void orderByKeepsDuplicateRows() {
+        List<Country> countries = countriesWithGaps(2_000);
+        CountryTable table = CountryTable.of(countries);
+        CountryQueryEngine engine = new CountryQueryEngine(table);
+        SplittableRandom random = new SplittableRandom(5);
+        // Einmal über table.size() / 8 (gefilterte Gesamtpermutation), einmal darunter
+        for (int size : new int[]{table.size() / 2, table.size() / 20}) {
+            int[] rows = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = random.nextInt(size / 3);
+            }
+            for (Comparator<Country> comparator : List.of(Country.BY_POPULATION_ASC, new SortByContinentThenPopulationDesc(),
+                    Comparator.comparing(Country::getName, Comparator.nullsFirst(Comparator.naturalOrder())))) {
+                int[] inTableOrder = rows.clone();
+                Arrays.sort(inTableOrder);
+                List<Country> expected = new ArrayList<>(table.toList(inTableOrder));
+                expected.sort(comparator);
+
+                assertEquals(expected, table.toList(engine.orderBy(rows, comparator)));
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidPercentiles() {
+        CountryQueryEngine engine = new CountryQueryEngine(CountryTable.of(countriesWithGaps(10)));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.percentile(Measure.AREA, null, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> engine.percentile(Measure.LANGUAGES, null, 0.5));
+    }
+
+    private static void assertSummary(List<Country> countries, Measure measure, Summary summary) {
+        ToDoubleFunction<Country> value = switch (measure) {
+            case POPULATION -> Country::getPopulation;
+            case AREA -> Country::getAreaInSquareKm;
+            case LANGUAGES -> c -> c.getNationalLanguages() != null ? c.getNationalLanguages().size() : 0;
+        };
+        double sum = countries.stream().mapToDouble(value).sum();
+
+        assertEquals(countries.size(), summary.count());
+        // Die Blöcke werden in anderer Reihenfolge addiert
+        assertEquals(sum, summary.sum(), 1e-9 * Math.abs(sum));
+        if (countries.isEmpty()) {
+            assertTrue(Double.isNaN(summary.min()) && Double.isNaN(summary.max()));
+        } else {
+            assertEquals(countries.stream().mapToDouble(value).min().getAsDouble(), summary.min());
+            assertEquals(countries.stream().mapToDouble(value).max().getAsDouble(), summary.max());
+        }
+    }
+
+    private static double nearestRank(double[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.max(1, Math.ceil(quantile * sorted.length)) - 1];
+    }
+
+    // Generierte Länder mit fehlendem Kontinent oder Beitrittsdatum und vielen gleichen Bevölkerungszahlen
+    private static List<Country> countriesWithGaps(int size) {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(size));
+        SplittableRandom random = new SplittableRandom(1);
+        for (Country country : countries) {
+            if (random.nextInt(20) == 0) {
+                country.setContinent(null);
+            }
+            if (random.nextInt(15) == 0) {
+                country.setAccessionToUN(null);
+            }
+            if (random.nextInt(40) == 0) {
+                country.setPopulation(countries.get(0).getPopulation());
+            }
+        }
+        return countries;
+    }
+}
@@ -0,0 +1,139 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountryRegistryTest {
+
+    @Test
+    void rangeQueriesMatchStreamFilters() {
+        List<Country> countries = uniquelyNamed(5_000);
+        countries.get(3).setAccessionToUN(null);
+        CountryRegistry registry = new CountryRegistry(countries);
+        List<CountrySnapshot> snapshots = countries.stream().map(CountrySnapshot::of).toList();
+        long minPopulation = countries.get(0).getPopulation() / 2;
+        long maxPopulation = minPopulation * 3;
+        LocalDate from = LocalDate.of(1960, 1, 1);
+        LocalDate to = LocalDate.of(1989, 12, 31);
+
+        // Gleiche Werte stehen in der Reihenfolge der Registrierung, wie bei einer stabilen Sortierung
+        assertEquals(snapshots.stream()
+                        .filter(s -> s.population() >= minPopulation && s.population() <= maxPopulation)
+                        .sorted(Comparator.comparingLong(CountrySnapshot::population))
+                        .toList(),
+                registry.populationBetween(minPopulation, maxPopulation));
+        assertEquals(snapshots.stream()
+                        .filter(s -> s.areaInSquareKm() >= 1_000 && s.areaInSquareKm() <= 50_000_000)
+                        .sorted(Comparator.comparingDouble(CountrySnapshot::areaInSquareKm))
+                        .toList(),
+                registry.areaBetween(1_000, 50_000_000));
+        assertEquals(snapshots.stream()
+                        .filter(s -> s.accessionToUN() != null && !s.accessionToUN().isBefore(from) && !s.accessionToUN().isAfter(to))
+                        .sorted(Comparator.comparing(CountrySnapshot::accessionToUN))
+                        .toList(),
+                registry.accessionBetween(from, to));
+    }
+
+    @Test
+    void rangeScanSeesEveryCountryExactlyOnceWhileOthersAreUpdated() throws Exception {
+        List<Country> countries = uniquelyNamed(2_000);
+        CountryRegistry registry = new CountryRegistry(countries);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService writers = Executors.newFixedThreadPool(3);
+        List<Future<?>> results = new ArrayList<>();
+        for (int writer = 0; writer < 3; writer++) {
+            SplittableRandom random = new SplittableRandom(writer);
+            results.add(writers.submit(() -> {
+                // Ändert nur die Fläche, die Bevölkerung bleibt für die Abfrage unverändert
+                while (running.get()) {
+                    String name = countries.get(random.nextInt(countries.size())).getName();
+                    double area = random.nextDouble(1_000_000);
+                    if (random.nextBoolean()) {
+                        registry.update(name, snapshot -> snapshot.withAreaInSquareKm(area));
+                    } else {
+                        registry.put(registry.get(name).withAreaInSquareKm(area));
+                    }
+                }
+            }));
+        }
+        try {
+            for (int scan = 0; scan < 1_000; scan++) {
+                List<CountrySnapshot> all = registry.sortedByPopulation();
+
+                assertEquals(countries.size(), all.size());
+                Set<String> names = new HashSet<>();
+                for (int i = 0; i < all.size(); i++) {
+                    assertTrue(names.add(all.get(i).name()));
+                    assertTrue(i == 0 || all.get(i - 1).population() <= all.get(i).population());
+                }
+            }
+        } finally {
+            running.set(false);
+            writers.shutdown();
+            assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
+
+    @Test
+    void updateReplacesIndexEntries() {
+        List<Country> countries = uniquelyNamed(100);
+        CountryRegistry registry = new CountryRegistry(countries);
+        String name = countries.get(0).getName();
+
+        registry.update(name, snapshot -> snapshot.withPopulation(-1));
+
+        assertEquals(List.of(registry.get(name)), registry.populationBetween(-1, -1));
+        assertEquals(countries.size(), registry.sortedByPopulation().size());
+        assertTrue(registry.remove(name));
+        assertEquals(List.of(), registry.populationBetween(-1, -1));
+    }
+
+    @Test
+    void updateCannotRenameACountry() {
+        List<Country> countries = uniquelyNamed(10);
+        CountryRegistry registry = new CountryRegistry(countries);
+        String name = countries.get(0).getName();
+        CountrySnapshot before = registry.get(name);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.update(name,
+                snapshot -> new CountrySnapshot("Anders", snapshot.continent(), snapshot.population(),
+                        snapshot.areaInSquareKm(), snapshot.accessionToUN(), snapshot.nationalLanguages())));
+        assertEquals(before, registry.get(name));
+        assertEquals(10, registry.sortedByPopulation().size());
+    }
+
+    @Test
+    void bulkLoadRejectsDuplicateNames() {
+        List<Country> countries = uniquelyNamed(3);
+        countries.get(2).setName(countries.get(0).getName());
+
+        assertThrows(IllegalArgumentException.class, () -> new CountryRegistry(countries));
+    }
+
+    private static List<Country> uniquelyNamed(int count) {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(count));
+        for (int i = 0; i < count; i++) {
+            countries.get(i).setName(countries.get(i).getName() + "-" + i);
+        }
+        return countries;
+    }
+}
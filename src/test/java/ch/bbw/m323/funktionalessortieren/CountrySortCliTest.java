@@ -0,0 +1,58 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountrySortCliTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rejectsSeveralSortsOnStandardOutput() {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+        int status = CountrySortCli.run(new String[]{"--generate", "10", "--sort", "area", "--sort", "name", "--output", "-"},
+                new PrintStream(log, true, StandardCharsets.UTF_8));
+
+        assertEquals(2, status);
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains("Standardausgabe"));
+    }
+
+    @Test
+    void writesEachSortToItsOwnFile() throws IOException {
+        Path byArea = directory.resolve("flaeche.csv");
+        Path byName = directory.resolve("namen.csv");
+        Path input = directory.resolve("eingabe.csv");
+        List<Country> countries = DataGenerator.generateCountriesFast(1_000);
+        try (CountryCsvWriter writer = CountryCsvWriter.create(input)) {
+            writer.writeAll(countries);
+        }
+
+        int status = CountrySortCli.run(new String[]{"--input", input.toString(),
+                        "--sort", "area desc", "--output", byArea.toString(),
+                        "--sort", "name nulls first", "--output", byName.toString()},
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        assertEquals(0, status);
+        assertEquals(sorted(countries, SortSpec.parse("area desc")), CountryCsvReader.read(byArea));
+        assertEquals(sorted(countries, SortSpec.parse("name nulls first")), CountryCsvReader.read(byName));
+    }
+
+    private static List<Country> sorted(List<Country> countries, SortSpec spec) {
+        List<Country> copy = new ArrayList<>(countries);
+        copy.sort(spec.compile());
+        return copy;
+    }
+}
@@ -0,0 +1,99 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CountryTest {
+
+    static Stream<Arguments> setters() {
+        return Stream.of(
+                Arguments.of("setName", (Consumer<Country>) country -> country.setName("Neuland")),
+                Arguments.of("setContinent", (Consumer<Country>) country -> country.setContinent(Continent.values()[2])),
+                Arguments.of("setPopulation", (Consumer<Country>) country -> country.setPopulation(7)),
+                Arguments.of("setAreaInSquareKm", (Consumer<Country>) country -> country.setAreaInSquareKm(0.5)),
+                Arguments.of("setAccessionToUN", (Consumer<Country>) country -> country.setAccessionToUN(LocalDate.of(2011, 7, 14))),
+                Arguments.of("setNationalLanguages", (Consumer<Country>) country -> country.setNationalLanguages(LanguageSet.of("Englisch"))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("setters")
+    void everySetterInvalidatesTheCachedHashCode(String setter, Consumer<Country> change) {
+        Country country = sample();
+        Country unchanged = sample();
+        // Mit einem LanguageSet wird der Hash zwischengespeichert
+        assertEquals(unchanged.hashCode(), country.hashCode());
+
+        change.accept(country);
+        Country fresh = sample();
+        change.accept(fresh);
+
+        assertNotEquals(unchanged, country);
+        assertEquals(fresh, country);
+        assertEquals(copyOf(country).hashCode(), country.hashCode());
+        assertEquals(fresh.hashCode(), country.hashCode());
+    }
+
+    @Test
+    void compactKeepsEqualsAndHashCode() {
+        Country country = new Country("Schweiz", Continent.values()[0], 8_700_000, 41_285.0, LocalDate.of(2002, 9, 10),
+                new ArrayList<>(List.of("Italienisch", "Deutsch", "Französisch")));
+        Country before = copyOf(country);
+
+        country.compact(new NamePool());
+
+        assertEquals(before, country);
+        assertEquals(before.hashCode(), country.hashCode());
+        assertInstanceOf(LanguageSet.class, country.getNationalLanguages());
+        assertEquals(List.of("Italienisch", "Deutsch", "Französisch"), country.getNationalLanguages());
+    }
+
+    @Test
+    void compactKeepsListsWithDuplicates() {
+        List<String> languages = new ArrayList<>(List.of("Deutsch", "Deutsch"));
+        Country country = new Country("Doppelland", Continent.values()[0], 1, 1.0, null, languages);
+        Country before = copyOf(country);
+
+        country.compact(new NamePool());
+
+        assertSame(languages, country.getNationalLanguages());
+        assertEquals(before, country);
+        assertEquals(before.hashCode(), country.hashCode());
+    }
+
+    @Test
+    void hashCodeFollowsChangesOfAMutableLanguageList() {
+        List<String> languages = new ArrayList<>(List.of("Deutsch"));
+        Country country = new Country("Schweiz", Continent.values()[0], 1, 1.0, null, languages);
+        int before = country.hashCode();
+
+        languages.add("Französisch");
+
+        assertNotEquals(before, country.hashCode());
+        assertEquals(copyOf(country).hashCode(), country.hashCode());
+    }
+
+    private static Country sample() {
+        return new Country("Schweiz", Continent.values()[0], 8_700_000, 41_285.0, LocalDate.of(2002, 9, 10),
+                LanguageSet.of("Deutsch", "Französisch", "Italienisch", "Rätoromanisch"));
+    }
+
+    private static Country copyOf(Country country) {
+        List<String> languages = country.getNationalLanguages();
+        return new Country(country.getName(), country.getContinent(), country.getPopulation(),
+                country.getAreaInSquareKm(), country.getAccessionToUN(),
+                languages != null ? new ArrayList<>(languages) : null);
+    }
+}
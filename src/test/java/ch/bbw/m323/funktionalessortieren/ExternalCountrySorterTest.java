@@ -0,0 +1,87 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalCountrySorterTest {
+
+    // Etwa 100 Länder pro Run
+    private static final long SMALL_BUDGET = 20_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mergesManyRunsLikeListSort() throws IOException {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(5_000);
+        for (Comparator<Country> comparator : List.of(Country.BY_NUMBER_OF_LANGUAGES_ASC, Country.BY_POPULATION_ASC,
+                new SortByContinentThenPopulationDesc(), Comparator.comparing(Country::getName).reversed())) {
+            // Ein Fenster von 1 KB wird über jede Run-Datei viele Male weitergeschoben
+            ExternalCountrySorter sorter = new ExternalCountrySorter(comparator, SMALL_BUDGET, directory, 1_024);
+            try (Stream<Country> sorted = sorter.sort(countries.stream())) {
+                Iterator<Country> iterator = sorted.iterator();
+                Country first = iterator.next();
+                assertTrue(runFiles() > 10);
+
+                List<Country> actual = new ArrayList<>(List.of(first));
+                iterator.forEachRemaining(actual::add);
+                assertEquals(RadixSortEngineTest.sorted(countries, comparator), actual);
+            }
+            assertEquals(0, runFiles());
+        }
+    }
+
+    @Test
+    void readsRecordsLargerThanTheWindow() throws IOException {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(500);
+        countries.get(7).setName("x".repeat(5_000));
+        ExternalCountrySorter sorter = new ExternalCountrySorter(Country.BY_AREA_DESC, SMALL_BUDGET, directory, 16);
+
+        try (Stream<Country> sorted = sorter.sort(countries.iterator())) {
+            assertEquals(RadixSortEngineTest.sorted(countries, Country.BY_AREA_DESC), sorted.toList());
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    void sortsInMemoryWithinTheBudget() throws IOException {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(1_000);
+        ExternalCountrySorter sorter = new ExternalCountrySorter(Country.BY_POPULATION_ASC,
+                ExternalCountrySorter.DEFAULT_MEMORY_BUDGET, directory);
+
+        try (Stream<Country> sorted = sorter.sort(countries.stream())) {
+            assertEquals(0, runFiles());
+            assertEquals(RadixSortEngineTest.sorted(countries, Country.BY_POPULATION_ASC), sorted.toList());
+        }
+    }
+
+    @Test
+    void deletesRunsWhenACountryCannotBeWritten() throws IOException {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(2_000);
+        countries.get(1_500).setAccessionToUN(LocalDate.MAX);
+        ExternalCountrySorter sorter = new ExternalCountrySorter(Country.BY_POPULATION_ASC, SMALL_BUDGET, directory);
+
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(countries.stream()));
+        assertEquals(0, runFiles());
+    }
+
+    private long runFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
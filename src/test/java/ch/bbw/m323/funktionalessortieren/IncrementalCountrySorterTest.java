@@ -0,0 +1,119 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalCountrySorterTest {
+
+    // Wenige verschiedene Werte, damit die Stabilität beim Mergen der Runs geprüft wird
+    private static final Comparator<Country> ORDER = Country.BY_NUMBER_OF_LANGUAGES_ASC;
+
+    @Test
+    void snapshotMatchesListSortOfCurrentVersionsInArrivalOrder() {
+        SplittableRandom random = new SplittableRandom(12);
+        List<Country> pool = uniquelyNamed(20_000);
+        // Aktuelle Version pro Name in Eintreffreihenfolge
+        Map<String, Country> model = new LinkedHashMap<>();
+        int next = 0;
+        try (IncrementalCountrySorter sorter = new IncrementalCountrySorter(ORDER, Country::getName)) {
+            for (int round = 0; round < 300; round++) {
+                List<Country> batch = new ArrayList<>();
+                int size = 1 + random.nextInt(round % 50 == 0 ? 2_000 : 60);
+                for (int i = 0; i < size; i++) {
+                    Country country = next > 0 && random.nextInt(4) == 0
+                            ? withPopulation(pool.get(random.nextInt(next)), random.nextLong(1_000_000))
+                            : pool.get(next++ % pool.size());
+                    batch.add(country);
+                    model.remove(country.getName());
+                    model.put(country.getName(), country);
+                }
+                sorter.ingest(batch);
+                if (random.nextInt(5) == 0 && next > 0) {
+                    String name = pool.get(random.nextInt(next)).getName();
+                    assertEquals(model.remove(name) != null, sorter.remove(name));
+                }
+                if (round % 97 == 0) {
+                    sorter.compact();
+                    assertTrue(sorter.runCount() <= 1);
+                }
+
+                assertEquals(sortedCopy(model.values()), sorter.snapshot().toList());
+                assertEquals(model.size(), sorter.size());
+                assertTrue(sorter.runCount() <= IncrementalCountrySorter.MAX_RUNS);
+            }
+        }
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterBatchesRemovalsOrCompaction() {
+        List<Country> countries = uniquelyNamed(3_000);
+        try (IncrementalCountrySorter sorter = new IncrementalCountrySorter(ORDER, Country::getName)) {
+            sorter.ingest(countries.subList(0, 1_000));
+            sorter.ingest(countries.subList(1_000, 1_500));
+            IncrementalCountrySorter.Snapshot snapshot = sorter.snapshot();
+            List<Country> before = snapshot.toList();
+
+            sorter.ingest(countries.subList(1_500, 3_000));
+            sorter.ingest(List.of(withPopulation(countries.get(0), 1), withPopulation(countries.get(1_200), 2)));
+            sorter.remove(countries.get(10).getName());
+            sorter.remove(countries.get(1_300).getName());
+            sorter.compact();
+
+            assertEquals(1_500, snapshot.size());
+            assertEquals(before, snapshot.toList());
+            assertEquals(before, snapshot.stream().toList());
+            assertEquals(2_998, sorter.snapshot().size());
+        }
+    }
+
+    @Test
+    void lastVersionWithinABatchWins() {
+        Country first = uniquelyNamed(1).get(0);
+        Country second = withPopulation(first, first.getPopulation() + 1);
+        try (IncrementalCountrySorter sorter = new IncrementalCountrySorter(ORDER, Country::getName)) {
+            sorter.ingest(List.of(first, second));
+
+            assertEquals(List.of(second), sorter.snapshot().toList());
+        }
+    }
+
+    @Test
+    void removeOfUnknownKeyReturnsFalse() {
+        try (IncrementalCountrySorter sorter = new IncrementalCountrySorter(ORDER, Country::getName)) {
+            sorter.ingest(uniquelyNamed(3));
+
+            assertFalse(sorter.remove("unbekannt"));
+            assertEquals(3, sorter.size());
+        }
+    }
+
+    private static List<Country> uniquelyNamed(int count) {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(count));
+        for (int i = 0; i < count; i++) {
+            countries.get(i).setName(countries.get(i).getName() + "-" + i);
+        }
+        return countries;
+    }
+
+    private static Country withPopulation(Country country, long population) {
+        return new Country(country.getName(), country.getContinent(), population, country.getAreaInSquareKm(),
+                country.getAccessionToUN(), country.getNationalLanguages());
+    }
+
+    private static List<Country> sortedCopy(Iterable<Country> countries) {
+        List<Country> copy = new ArrayList<>();
+        countries.forEach(copy::add);
+        copy.sort(ORDER);
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LanguageSetTest {
+
+    static Stream<List<String>> languageLists() {
+        return Stream.of(
+                List.of(),
+                List.of("Deutsch"),
+                List.of("Deutsch", "Französisch", "Italienisch"),
+                List.of("Italienisch", "Deutsch", "Französisch"),
+                List.of("Rätoromanisch", "Xhosa", "Quechua"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("languageLists")
+    void equalsAndHashCodeMatchArrayList(List<String> languages) {
+        ArrayList<String> list = new ArrayList<>(languages);
+        LanguageSet set = LanguageSet.of(languages);
+
+        assertEquals(list, set);
+        assertEquals(set, list);
+        assertEquals(list.hashCode(), set.hashCode());
+        assertEquals(list, List.copyOf(set));
+        assertEquals(list.toString(), set.toString());
+    }
+
+    @Test
+    void keepsTheGivenOrder() {
+        // Die Reihenfolge hängt nicht davon ab, in welcher Reihenfolge die Sprachen zuerst gesehen wurden
+        LanguageSet forward = LanguageSet.of("Sprache-A", "Sprache-B", "Sprache-C");
+        LanguageSet backward = LanguageSet.of("Sprache-C", "Sprache-B", "Sprache-A");
+
+        assertEquals(List.of("Sprache-A", "Sprache-B", "Sprache-C"), forward);
+        assertEquals(List.of("Sprache-C", "Sprache-B", "Sprache-A"), backward);
+        assertNotEquals(forward, backward);
+        assertTrue(forward.containsAll(backward));
+        assertTrue(backward.containsAll(forward));
+    }
+
+    @Test
+    void sharesOneInstancePerList() {
+        LanguageSet first = LanguageSet.of(new ArrayList<>(List.of("Deutsch", "Englisch")));
+
+        assertSame(first, LanguageSet.of("Deutsch", "Englisch"));
+        assertSame(first, LanguageSet.of(first));
+        assertSame(LanguageSet.EMPTY, LanguageSet.of(List.of()));
+    }
+
+    @Test
+    void containsUsesMembership() {
+        LanguageSet set = LanguageSet.of("Deutsch", "Englisch");
+
+        assertTrue(set.contains("Englisch"));
+        assertFalse(set.contains("Spanisch"));
+        assertFalse(set.contains("nie gesehen"));
+        assertFalse(set.contains(null));
+        assertTrue(set.containsAll(List.of("Englisch")));
+        assertFalse(set.containsAll(LanguageSet.of("Englisch", "Spanisch")));
+    }
+
+    @Test
+    void rejectsDuplicatesAndNull() {
+        assertThrows(IllegalArgumentException.class, () -> LanguageSet.of("Deutsch", "Deutsch"));
+        assertThrows(IllegalArgumentException.class, () -> LanguageSet.of(Arrays.asList("Deutsch", null)));
+    }
+
+    @Test
+    void isImmutable() {
+        LanguageSet set = LanguageSet.of("Deutsch");
+
+        assertThrows(UnsupportedOperationException.class, () -> set.add("Englisch"));
+        assertThrows(UnsupportedOperationException.class, () -> set.remove(0));
+    }
+
+    @Test
+    void generatedListsMatchTheGeneratedTable() {
+        List<Country> countries = DataGenerator.generateCountriesFast(2_000);
+        CountryTable table = DataGenerator.generateCountryTable(2_000);
+
+        for (int row = 0; row < countries.size(); row++) {
+            assertEquals(table.languages(row), countries.get(row).getNationalLanguages());
+        }
+    }
+
+    @Test
+    void generatedListsKeepTheDrawnOrder() {
+        Set<List<String>> lists = new HashSet<>(DataGenerator.generateCountriesFast(20_000).stream()
+                .map(Country::getNationalLanguages)
+                .toList());
+
+        for (List<String> languages : lists) {
+            assertTrue(languages.size() >= 1 && languages.size() <= 3, languages.toString());
+            assertEquals(languages.size(), new HashSet<>(languages).size(), languages.toString());
+        }
+        // Wie beim Mischen mit Instancio kommen dieselben Sprachen in verschiedenen Reihenfolgen vor
+        assertTrue(lists.stream().anyMatch(languages -> languages.size() == 2
+                && lists.contains(List.of(languages.get(1), languages.get(0)))));
+    }
+}
@@ -0,0 +1,89 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class NameSortKeyTest {
+
+    // Fälle, die NameSortKey gesondert behandelt: nur Gross-/Kleinschreibung verschieden, Faltung ausserhalb von
+    // ASCII, Surrogate, gemeinsames Präfix von vier Zeichen, kürzer als das Präfix, leer
+    private static final List<String> NAMES = List.of(
+            "Zürich", "zürich", "ZÜRICH", "Zurich",
+            "Straße", "STRASSE", "strasse", "Straẞe", "ß", "ẞ", "ss",
+            "ı", "I", "i", "İ", "Istanbul", "ıstanbul",
+            "Σ", "σ", "ς", "ΣΟΦΙΑ", "σοφια", "σοφιας",
+            "Abcd", "abcd", "ABCDe", "abcdf", "Abcd ", "Abc", "ab", "A", "a", "",
+            "😀", "😀a", "a😀", "A😀", "𝔄", "A𝔄b", "a𝔄B", "Abcd😀",
+            "Ärmel", "ärmel", "aerm", "Ǆ", "ǅ", "ǆ", "µ", "Μ", "μ",
+            "\uD800", "a\uDC00", "Ωmega", "ωMEGA", "K", "k", "K");
+
+    @Test
+    void comparesLikeCompareToIgnoreCase() {
+        for (String a : NAMES) {
+            for (String b : NAMES) {
+                assertEquals(Integer.signum(a.compareToIgnoreCase(b)),
+                        Integer.signum(NameSortKey.of(a).compareTo(NameSortKey.of(b))), a + " <> " + b);
+            }
+        }
+    }
+
+    @Test
+    void sortsLikeCompareToIgnoreCase() {
+        List<String> names = new ArrayList<>(NAMES);
+        DataGenerator.generateCountriesFast(5_000).forEach(country -> names.add(country.getName()));
+        // Namen mit gleichem Präfix, die sich erst ab dem fünften Zeichen unterscheiden
+        names.addAll(List.of("Neuland-1", "NEULAND-2", "neuland", "Neulandia", "NeuLand-1"));
+        Collections.shuffle(names, new Random(4));
+        List<Country> countries = new ArrayList<>();
+        for (String name : names) {
+            countries.add(new Country(name, null, 0, 0.0, null, null));
+        }
+        countries.add(new Country(null, null, 0, 0.0, null, null));
+        countries.add(new Country(null, null, 1, 0.0, null, null));
+
+        List<Country> expected = new ArrayList<>(countries);
+        expected.sort(Comparator.comparing(Country::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        List<Country> actual = new ArrayList<>(countries);
+        Collections.sort(actual);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void keepsTheOriginalName() {
+        for (String name : NAMES) {
+            assertSame(name, NameSortKey.of(name).getName());
+        }
+    }
+
+    @Test
+    void setNameResetsTheCachedKey() {
+        Country country = new Country("Zürich", null, 0, 0.0, null, null);
+        NameSortKey first = country.getNameSortKey();
+        assertSame(first, country.getNameSortKey());
+
+        country.setName("Aarau");
+
+        assertEquals("Aarau", country.getNameSortKey().getName());
+        assertEquals(-1, Integer.signum(country.compareTo(new Country("Bern", null, 0, 0.0, null, null))));
+        country.setName(null);
+        assertNull(country.getNameSortKey());
+        assertEquals(Arrays.asList(null, "Bern"), sortedNames(country, new Country("Bern", null, 0, 0.0, null, null)));
+    }
+
+    private static List<String> sortedNames(Country... countries) {
+        List<Country> list = new ArrayList<>(Arrays.asList(countries));
+        Collections.sort(list);
+        return list.stream().map(Country::getName).toList();
+    }
+}
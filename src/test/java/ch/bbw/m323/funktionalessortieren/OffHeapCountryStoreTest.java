@@ -0,0 +1,69 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class OffHeapCountryStoreTest {
+
+    static Stream<Arguments> orderingsAndSizes() {
+        return Stream.of(CountryOrdering.POPULATION_ASC, CountryOrdering.AREA_DESC,
+                        CountryOrdering.UN_ACCESSION_DATE_ASC, CountryOrdering.CONTINENT_THEN_POPULATION_DESC)
+                .flatMap(ordering -> Stream.of(0, 1, 2, 255, 256, 5_000).map(size -> arguments(ordering, size)));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("orderingsAndSizes")
+    void sortMatchesListSort(CountryOrdering ordering, int size) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(size);
+        try (OffHeapCountryStore store = OffHeapCountryStore.of(countries)) {
+            assertEquals(countries, store.asList());
+
+            store.sort(ordering);
+
+            assertEquals(RadixSortEngineTest.sorted(countries, ordering.comparator()), store.asList());
+        }
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("orderingsAndSizes")
+    void sortByComparatorMatchesListSort(CountryOrdering ordering, int size) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(size);
+        try (OffHeapCountryStore store = OffHeapCountryStore.of(countries)) {
+            // Mehrmals sortieren: die Permutation muss auf bereits umgestellten Datensätzen aufbauen
+            store.sort(CountryOrdering.AREA_DESC);
+            store.sort(ordering.comparator());
+
+            assertEquals(RadixSortEngineTest.sorted(
+                    RadixSortEngineTest.sorted(countries, Country.BY_AREA_DESC), ordering.comparator()), store.asList());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CountryOrdering.class, names = {"NAME", "NUMBER_OF_LANGUAGES_ASC"})
+    void rejectsUnsupportedOrderings(CountryOrdering ordering) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(100);
+        try (OffHeapCountryStore store = OffHeapCountryStore.of(countries)) {
+            assertThrows(IllegalArgumentException.class, () -> store.sort(ordering));
+            assertThrows(IllegalArgumentException.class, () -> store.sort(ordering.comparator()));
+            assertEquals(countries, store.asList());
+        }
+    }
+
+    @Test
+    void rejectsUnknownComparator() {
+        try (OffHeapCountryStore store = OffHeapCountryStore.of(RadixSortEngineTest.awkwardCountries(10))) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> store.sort(Country.BY_POPULATION_ASC.thenComparing(Country.BY_AREA_DESC)));
+        }
+    }
+}
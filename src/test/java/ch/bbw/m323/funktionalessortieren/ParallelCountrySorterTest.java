@@ -0,0 +1,84 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParallelCountrySorterTest {
+
+    // Wenige verschiedene Werte, damit Stabilität beim Teilen der Merges sichtbar wird
+    private static final List<Comparator<Country>> COMPARATORS = List.of(Country.BY_NUMBER_OF_LANGUAGES_ASC,
+            new SortByContinentThenPopulationDesc(), Country.BY_AREA_DESC.reversed());
+
+    static Stream<Arguments> cutoffsAndSizes() {
+        // Grössen um den Cutoff und solche, deren Hälften ungleich lang sind und unterschiedlich tief geteilt werden
+        return IntStream.of(2, 3, 7, 64).boxed().flatMap(cutoff -> IntStream.of(
+                        cutoff - 1, cutoff, cutoff + 1, 2 * cutoff - 1, 2 * cutoff + 1, 3 * cutoff + 2, 1_001, 4_097)
+                .filter(size -> size >= 0)
+                .mapToObj(size -> Arguments.of(cutoff, size)));
+    }
+
+    @ParameterizedTest(name = "cutoff {0}, {1} Länder")
+    @MethodSource("cutoffsAndSizes")
+    void matchesListSort(int cutoff, int size) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(size);
+        try (ParallelCountrySorter sorter = new ParallelCountrySorter(4, cutoff, 0)) {
+            for (Comparator<Country> comparator : COMPARATORS) {
+                List<Country> list = new ArrayList<>(countries);
+                Country[] array = countries.toArray(new Country[0]);
+
+                sorter.sort(list, comparator);
+                sorter.sort(array, comparator);
+
+                List<Country> expected = RadixSortEngineTest.sorted(countries, comparator);
+                assertEquals(expected, list);
+                assertArrayEquals(expected.toArray(), array);
+            }
+        }
+    }
+
+    @Test
+    void handlesSortedAndReversedInput() {
+        List<Country> sorted = RadixSortEngineTest.sorted(RadixSortEngineTest.awkwardCountries(3_000), Country.BY_POPULATION_ASC);
+        List<Country> reversed = new ArrayList<>(sorted);
+        Collections.reverse(reversed);
+        try (ParallelCountrySorter sorter = new ParallelCountrySorter(3, 5, 0)) {
+            for (List<Country> input : List.of(sorted, reversed)) {
+                List<Country> actual = new ArrayList<>(input);
+
+                sorter.sort(actual, Country.BY_POPULATION_ASC);
+
+                assertEquals(RadixSortEngineTest.sorted(input, Country.BY_POPULATION_ASC), actual);
+            }
+        }
+    }
+
+    @Test
+    void sortsSmallListsWithoutThePool() {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(500);
+        List<Country> actual = new ArrayList<>(countries);
+        try (ParallelCountrySorter sorter = new ParallelCountrySorter(2)) {
+            sorter.sort(actual, Country.BY_AREA_DESC);
+        }
+
+        assertEquals(RadixSortEngineTest.sorted(countries, Country.BY_AREA_DESC), actual);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCountrySorter(0));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelCountrySorter(2, 1, 0));
+    }
+}
@@ -0,0 +1,149 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RadixSortEngineTest {
+
+    static Stream<Arguments> orderingsAndSizes() {
+        return Arrays.stream(CountryOrdering.values()).flatMap(ordering -> IntStream.of(
+                        0, 1, RadixSortEngine.RADIX_THRESHOLD - 1, RadixSortEngine.RADIX_THRESHOLD, 5_000)
+                .mapToObj(size -> Arguments.of(ordering, size)));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("orderingsAndSizes")
+    void listSortMatchesListSort(CountryOrdering ordering, int size) {
+        List<Country> countries = awkwardCountries(size);
+
+        assertEquals(sorted(countries, ordering.comparator()), radixSorted(countries, ordering.comparator()));
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("orderingsAndSizes")
+    void arraySortMatchesListSort(CountryOrdering ordering, int size) {
+        List<Country> countries = awkwardCountries(size);
+        Country[] array = countries.toArray(new Country[0]);
+
+        RadixSortEngine.sort(array, ordering.comparator());
+
+        assertArrayEquals(sorted(countries, ordering.comparator()).toArray(), array);
+    }
+
+    @Test
+    void continentOrderingPutsNullCountriesLast() {
+        List<Country> countries = awkwardCountries(1_000);
+        for (int i = 0; i < countries.size(); i += 97) {
+            countries.set(i, null);
+        }
+        Comparator<Country> comparator = new SortByContinentThenPopulationDesc();
+
+        assertEquals(sorted(countries, comparator), radixSorted(countries, comparator));
+    }
+
+    @Test
+    void unknownComparatorsFallBackToListSort() {
+        List<Country> countries = awkwardCountries(1_000);
+        Comparator<Country> comparator = Comparator.comparing(Country::getName).reversed();
+
+        assertEquals(sorted(countries, comparator), radixSorted(countries, comparator));
+    }
+
+    @Test
+    void sortsDatesOutsideTheTableRange() {
+        List<Country> countries = withExtremeDates(RadixSortEngine.RADIX_THRESHOLD * 4);
+
+        assertEquals(sorted(countries, Country.BY_UN_ACCESSION_DATE_ASC),
+                radixSorted(countries, Country.BY_UN_ACCESSION_DATE_ASC));
+        Country[] array = countries.toArray(new Country[0]);
+        RadixSortEngine.sort(array, Country.BY_UN_ACCESSION_DATE_ASC);
+        assertArrayEquals(sorted(countries, Country.BY_UN_ACCESSION_DATE_ASC).toArray(), array);
+    }
+
+    @Test
+    void sortSpecSortsDatesOutsideTheTableRange() {
+        List<Country> countries = withExtremeDates(RadixSortEngine.RADIX_THRESHOLD * 4);
+
+        for (String text : List.of("accession desc nulls first", "accession, population desc")) {
+            SortSpec spec = SortSpec.parse(text);
+            List<Country> actual = new ArrayList<>(countries);
+
+            spec.sort(actual);
+
+            assertEquals(sorted(countries, spec.compile()), actual, text);
+        }
+    }
+
+    /**
+     * Generierte Länder mit eindeutigen Namen (damit die Stabilität über equals sichtbar wird), vielen gleichen
+     * Schlüsseln und Randwerten: negative und extreme Bevölkerung, negative Fläche, {@code NaN}, {@code -0.0},
+     * Unendlich sowie fehlende Kontinente, Daten und Sprachlisten.
+     */
+    static List<Country> awkwardCountries(int size) {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(size));
+        long[] populations = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE, 42, 42, -42};
+        double[] areas = {0.0, -0.0, -1.5, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, 1.5};
+        SplittableRandom random = new SplittableRandom(9);
+        for (int i = 0; i < size; i++) {
+            Country country = countries.get(i);
+            country.setName(country.getName() + "-" + i);
+            if (random.nextInt(3) == 0) {
+                country.setPopulation(populations[random.nextInt(populations.length)]);
+            }
+            if (random.nextInt(3) == 0) {
+                country.setAreaInSquareKm(areas[random.nextInt(areas.length)]);
+            }
+            if (random.nextInt(8) == 0) {
+                country.setContinent(null);
+            }
+            if (random.nextInt(8) == 0) {
+                country.setAccessionToUN(null);
+            }
+            if (random.nextInt(8) == 0) {
+                country.setNationalLanguages(null);
+            }
+        }
+        return countries;
+    }
+
+    // Generierte Länder mit LocalDate.MIN/MAX und Daten knapp ausserhalb des int-Bereichs der Epoch-Days
+    static List<Country> withExtremeDates(int size) {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(size));
+        LocalDate[] extremes = {LocalDate.MIN, LocalDate.MAX, LocalDate.ofEpochDay(Integer.MIN_VALUE),
+                LocalDate.ofEpochDay(Integer.MIN_VALUE - 1L), LocalDate.ofEpochDay(Integer.MAX_VALUE + 1L), null};
+        SplittableRandom random = new SplittableRandom(3);
+        for (Country country : countries) {
+            if (random.nextInt(4) == 0) {
+                country.setAccessionToUN(extremes[random.nextInt(extremes.length)]);
+            }
+        }
+        return countries;
+    }
+
+    static List<Country> sorted(List<Country> countries, Comparator<? super Country> comparator) {
+        List<Country> copy = new ArrayList<>(countries);
+        copy.sort(comparator);
+        return copy;
+    }
+
+    private static List<Country> radixSorted(List<Country> countries, Comparator<? super Country> comparator) {
+        List<Country> copy = new ArrayList<>(countries);
+        RadixSortEngine.sort(copy, comparator);
+        return copy;
+    }
+}
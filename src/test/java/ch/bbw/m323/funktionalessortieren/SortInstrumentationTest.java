@@ -0,0 +1,150 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortInstrumentationTest {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperBound(value));
+        }
+    }
+
+    @Test
+    void bucketBoundaries() {
+        // Ab 32 teilt sich jede Zweierpotenz in 16 Buckets
+        assertEquals(32, LatencyHistogram.bucketOf(32));
+        assertEquals(32, LatencyHistogram.bucketOf(33));
+        assertEquals(33, LatencyHistogram.bucketOf(34));
+        assertEquals(33, LatencyHistogram.upperBound(32));
+        assertEquals(47, LatencyHistogram.bucketOf(63));
+        assertEquals(48, LatencyHistogram.bucketOf(64));
+        assertEquals(48, LatencyHistogram.bucketOf(67));
+        assertEquals(49, LatencyHistogram.bucketOf(68));
+        assertEquals(67, LatencyHistogram.upperBound(48));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void bucketsAreContiguousWithBoundedWidth() {
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        long lower = 0;
+        for (int bucket = 0; bucket <= last; bucket++) {
+            long upper = LatencyHistogram.upperBound(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(lower));
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertTrue(upper - lower <= lower / 16, "Bucket " + bucket + " zu breit");
+            if (bucket < last) {
+                assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+            }
+            lower = upper + 1;
+        }
+    }
+
+    @Test
+    void percentilesOfKnownValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 100; value >= 1; value--) {
+            histogram.record(value);
+        }
+
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(20, histogram.percentile(0.2));
+        // 50 liegt im Bucket 50..51, 99 im Bucket 96..99, 100 im Bucket 100..103
+        assertEquals(51, histogram.percentile(0.5));
+        assertEquals(99, histogram.percentile(0.99));
+        assertEquals(100, histogram.percentile(1));
+        assertEquals(100, histogram.count());
+        assertEquals(5050, histogram.sum());
+        assertEquals(100, histogram.max());
+        assertEquals(50.5, histogram.mean());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1_000, 123_456, 1_000_000_007, Long.MAX_VALUE / 3})
+    void percentileIsWithinOneSixteenth(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(value + value / 64);
+
+        long median = histogram.percentile(0.5);
+        assertTrue(median >= value && median - value <= value / 16, "Median " + median + " für " + value);
+        assertEquals(value + value / 64, histogram.percentile(1));
+    }
+
+    @Test
+    void negativeValuesCountAsZeroAndEmptyIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(0, histogram.mean());
+
+        histogram.record(-5);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.percentile(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(-0.1));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        LatencyHistogram copy = histogram.copy();
+        histogram.record(1_000);
+
+        assertEquals(1, copy.count());
+        assertEquals(10, copy.sum());
+        assertEquals(10, copy.max());
+        assertEquals(10, copy.percentile(1));
+    }
+
+    @Test
+    void dumpWritesPrometheusText() {
+        LatencyHistogram latency = new LatencyHistogram();
+        latency.record(10);
+        latency.record(20);
+        latency.record(30);
+        Map<String, SortInstrumentation.SortStats> snapshot = new LinkedHashMap<>();
+        snapshot.put("POPULATION_ASC", new SortInstrumentation.SortStats(120, 0, 3, 40, latency));
+        snapshot.put("a\"b\\c", new SortInstrumentation.SortStats(7, 2, 0, 0, new LatencyHistogram()));
+
+        assertEquals("""
+                # TYPE country_sort_comparisons_total counter
+                country_sort_comparisons_total{comparator="POPULATION_ASC"} 120
+                country_sort_comparisons_total{comparator="a\\"b\\\\c"} 7
+                # TYPE country_sort_null_branches_total counter
+                country_sort_null_branches_total{comparator="POPULATION_ASC"} 0
+                country_sort_null_branches_total{comparator="a\\"b\\\\c"} 2
+                # TYPE country_sort_elements_total counter
+                country_sort_elements_total{comparator="POPULATION_ASC"} 40
+                country_sort_elements_total{comparator="a\\"b\\\\c"} 0
+                # TYPE country_sort_duration_seconds summary
+                country_sort_duration_seconds{comparator="POPULATION_ASC",quantile="0.5"} 2.0E-8
+                country_sort_duration_seconds{comparator="POPULATION_ASC",quantile="0.9"} 3.0E-8
+                country_sort_duration_seconds{comparator="POPULATION_ASC",quantile="0.99"} 3.0E-8
+                country_sort_duration_seconds{comparator="POPULATION_ASC",quantile="0.999"} 3.0E-8
+                country_sort_duration_seconds_sum{comparator="POPULATION_ASC"} 6.0E-8
+                country_sort_duration_seconds_count{comparator="POPULATION_ASC"} 3
+                country_sort_duration_seconds{comparator="a\\"b\\\\c",quantile="0.5"} 0.0
+                country_sort_duration_seconds{comparator="a\\"b\\\\c",quantile="0.9"} 0.0
+                country_sort_duration_seconds{comparator="a\\"b\\\\c",quantile="0.99"} 0.0
+                country_sort_duration_seconds{comparator="a\\"b\\\\c",quantile="0.999"} 0.0
+                country_sort_duration_seconds_sum{comparator="a\\"b\\\\c"} 0.0
+                country_sort_duration_seconds_count{comparator="a\\"b\\\\c"} 0
+                # TYPE country_sort_duration_seconds_max gauge
+                country_sort_duration_seconds_max{comparator="POPULATION_ASC"} 3.0E-8
+                country_sort_duration_seconds_max{comparator="a\\"b\\\\c"} 0.0
+                """, SortInstrumentation.dump(snapshot));
+    }
+}
@@ -0,0 +1,122 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortSpecTest {
+
+    private static final Comparator<Country> BY_LANGUAGES = Comparator.comparingInt(
+            country -> country.getNationalLanguages() != null ? country.getNationalLanguages().size() : 0);
+
+    static Stream<Arguments> equivalentComparators() {
+        return Stream.of(
+                Arguments.of("continent, population desc", new SortByContinentThenPopulationDesc()),
+                Arguments.of("population", Country.BY_POPULATION_ASC),
+                Arguments.of("area desc", Country.BY_AREA_DESC),
+                Arguments.of("accession", Country.BY_UN_ACCESSION_DATE_ASC),
+                Arguments.of("languages", Country.BY_NUMBER_OF_LANGUAGES_ASC),
+                // Die Comparator-Kette aus MainApp
+                Arguments.of("languages, name nulls first", BY_LANGUAGES.thenComparing(
+                        Comparator.comparing(Country::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)))),
+                Arguments.of("name desc nulls first, accession desc",
+                        Comparator.comparing(Country::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER.reversed()))
+                                .thenComparing(Country::getAccessionToUN, Comparator.nullsLast(Comparator.reverseOrder()))),
+                Arguments.of("continent desc nulls first, area",
+                        Comparator.comparing(Country::getContinent,
+                                        Comparator.nullsFirst(Comparator.comparingInt(Continent::getDisplayRank).reversed()))
+                                .thenComparingDouble(Country::getAreaInSquareKm)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("equivalentComparators")
+    void compiledComparatorMatchesHandWrittenChain(String text, Comparator<Country> expected) {
+        List<Country> countries = countriesWithNulls();
+
+        assertEquals(sorted(countries, expected), sorted(countries, SortSpec.parse(text).compile()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("equivalentComparators")
+    void listSortMatchesHandWrittenChain(String text, Comparator<Country> expected) {
+        List<Country> countries = countriesWithNulls();
+        List<Country> actual = new ArrayList<>(countries);
+
+        SortSpec.parse(text).sort(actual);
+
+        assertEquals(sorted(countries, expected), actual);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("equivalentComparators")
+    void tablePermutationMatchesHandWrittenChain(String text, Comparator<Country> expected) {
+        List<Country> countries = countriesWithNulls();
+        CountryTable table = CountryTable.of(countries);
+
+        int[] permutation = SortSpec.parse(text).sortedPermutation(table);
+
+        List<Country> actual = new ArrayList<>(permutation.length);
+        for (int row : permutation) {
+            actual.add(countries.get(row));
+        }
+        assertEquals(sorted(countries, expected), actual);
+    }
+
+    @Test
+    void packsLevelsForLists() {
+        assertTrue(SortSpec.parse("continent, population desc").fitsPackedKey(countriesWithNulls()));
+        // Namen werden über ihre Ränge gepackt, wie bei einer CountryTable
+        assertTrue(SortSpec.parse("name desc nulls first, continent").fitsPackedKey(countriesWithNulls()));
+    }
+
+    @Test
+    void parseMatchesBuilder() {
+        SortSpec built = SortSpec.by(SortField.CONTINENT).desc().nullsFirst().then(SortField.AREA);
+
+        assertEquals(built, SortSpec.parse("Continent DESC nulls first,  area asc"));
+    }
+
+    @Test
+    void rejectsInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("population sideways"));
+        assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("capital"));
+        assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("name nulls"));
+        assertThrows(IllegalArgumentException.class, () -> SortSpec.parse("area,"));
+    }
+
+    // Generierte Länder mit fehlenden Werten und Namen, die sich nur in der Gross-/Kleinschreibung unterscheiden
+    private static List<Country> countriesWithNulls() {
+        List<Country> countries = new ArrayList<>(DataGenerator.generateCountriesFast(RadixSortEngine.RADIX_THRESHOLD * 8));
+        SplittableRandom random = new SplittableRandom(7);
+        for (Country country : countries) {
+            switch (random.nextInt(12)) {
+                case 0 -> country.setName(null);
+                case 1 -> country.setContinent(null);
+                case 2 -> country.setAccessionToUN(null);
+                case 3 -> country.setNationalLanguages(null);
+                case 4 -> country.setName(country.getName().toUpperCase());
+                case 5 -> country.setName("");
+                default -> {
+                }
+            }
+        }
+        return countries;
+    }
+
+    private static List<Country> sorted(List<Country> countries, Comparator<? super Country> comparator) {
+        List<Country> copy = new ArrayList<>(countries);
+        copy.sort(comparator);
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedCountryIndexTest {
+
+    // Viele gleichwertige Länder, damit die Einfügereihenfolge bei der Reparatur zählt
+    private static final List<Comparator<Country>> COMPARATORS = List.of(Country.BY_NUMBER_OF_LANGUAGES_ASC,
+            new SortByContinentThenPopulationDesc(), Country.BY_AREA_DESC, Comparator.naturalOrder());
+
+    @Test
+    void viewsMatchAFreshSortAfterEveryMutation() {
+        SplittableRandom random = new SplittableRandom(21);
+        List<Country> pool = RadixSortEngineTest.awkwardCountries(3_000);
+        // Modell: Länder in Einfügereihenfolge
+        List<Country> model = new ArrayList<>(pool.subList(0, 500));
+        SortedCountryIndex index = new SortedCountryIndex(model, Long.MAX_VALUE);
+        COMPARATORS.forEach(index::register);
+        int next = 500;
+        for (int step = 0; step < 600; step++) {
+            Country country = model.get(random.nextInt(model.size()));
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    Country added = pool.get(next++ % pool.size());
+                    if (!model.contains(added)) {
+                        index.add(added);
+                        model.add(added);
+                    }
+                }
+                case 1 -> {
+                    assertTrue(index.remove(country));
+                    model.remove(country);
+                }
+                case 2 -> index.update(country, c -> {
+                    c.setPopulation(random.nextLong(100));
+                    c.setAreaInSquareKm(random.nextInt(3));
+                });
+                case 3 -> {
+                    // Änderung ausserhalb des Index
+                    country.setNationalLanguages(random.nextBoolean() ? null : List.of("Deutsch"));
+                    index.invalidate(country);
+                }
+                default -> {
+                    // Lesen ohne Änderung
+                }
+            }
+            Comparator<Country> comparator = COMPARATORS.get(random.nextInt(COMPARATORS.size()));
+
+            assertEquals(RadixSortEngineTest.sorted(model, comparator), index.sorted(comparator));
+            assertEquals(model.size(), index.size());
+        }
+        for (Comparator<Country> comparator : COMPARATORS) {
+            assertEquals(RadixSortEngineTest.sorted(model, comparator), index.sorted(comparator));
+        }
+    }
+
+    @Test
+    void failedMutationLeavesTheCountryInEveryView() {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(300);
+        SortedCountryIndex index = new SortedCountryIndex(countries, Long.MAX_VALUE)
+                .register(Country.BY_POPULATION_ASC);
+        index.sorted(Country.BY_POPULATION_ASC);
+        Country country = countries.get(42);
+
+        assertThrows(IllegalStateException.class, () -> index.update(country, c -> {
+            c.setPopulation(-7);
+            throw new IllegalStateException("abgebrochen");
+        }));
+
+        assertEquals(RadixSortEngineTest.sorted(countries, Country.BY_POPULATION_ASC), index.sorted(Country.BY_POPULATION_ASC));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedViewAndCountsAccesses() {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(100);
+        Comparator<Country> a = Country.BY_POPULATION_ASC;
+        Comparator<Country> b = Country.BY_AREA_DESC;
+        Comparator<Country> c = Country.BY_UN_ACCESSION_DATE_ASC;
+        // Zwei Sichten mit 100 Ländern (je 800 Bytes) passen ins Budget, drei nicht
+        SortedCountryIndex index = new SortedCountryIndex(countries, 1_700).register(a).register(b).register(c);
+
+        index.sorted(a);
+        index.sorted(b);
+        index.sorted(c);
+        assertEquals(new SortedCountryIndex.CacheStats(0, 3, 3, 0, 1), index.stats());
+
+        index.sorted(b);
+        index.sorted(c);
+        assertEquals(new SortedCountryIndex.CacheStats(2, 3, 3, 0, 1), index.stats());
+
+        // a wurde verworfen und wird neu aufgebaut; dafür muss jetzt b weichen
+        index.sorted(a);
+        assertEquals(new SortedCountryIndex.CacheStats(2, 4, 4, 0, 2), index.stats());
+        index.sorted(c);
+        index.sorted(b);
+        assertEquals(new SortedCountryIndex.CacheStats(3, 5, 5, 0, 3), index.stats());
+    }
+
+    @Test
+    void countsRepairsPerBuiltView() {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(100);
+        SortedCountryIndex index = new SortedCountryIndex(countries, Long.MAX_VALUE)
+                .register(Country.BY_POPULATION_ASC).register(Country.BY_AREA_DESC).register(Country.BY_UN_ACCESSION_DATE_ASC);
+        index.sorted(Country.BY_POPULATION_ASC);
+        index.sorted(Country.BY_AREA_DESC);
+
+        index.update(countries.get(0), country -> country.setPopulation(1));
+        index.remove(countries.get(1));
+        index.add(countries.get(1));
+
+        // Drei Operationen in je zwei aufgebauten Sichten; die dritte Sicht wurde nie aufgebaut
+        assertEquals(new SortedCountryIndex.CacheStats(0, 2, 2, 6, 0), index.stats());
+        index.invalidate(countries.get(2));
+        index.sorted(Country.BY_POPULATION_ASC);
+        assertEquals(new SortedCountryIndex.CacheStats(0, 3, 3, 6, 0), index.stats());
+    }
+
+    @Test
+    void rejectsUnknownCountriesAndComparators() {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(10);
+        SortedCountryIndex index = new SortedCountryIndex(countries.subList(0, 5), 1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> index.add(countries.get(0)));
+        assertThrows(IllegalArgumentException.class, () -> index.update(countries.get(7), c -> c.setPopulation(1)));
+        assertThrows(IllegalArgumentException.class, () -> index.sorted(Country.BY_AREA_DESC));
+        assertFalse(index.remove(countries.get(7)));
+        assertThrows(IllegalArgumentException.class, () -> new SortedCountryIndex(0));
+    }
+}
@@ -0,0 +1,71 @@
+package ch.bbw.m323.funktionalessortieren;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TopKTest {
+
+    private static final int SIZE = 3_000;
+
+    // Wenige verschiedene Werte, damit die Einfügereihenfolge bei Gleichheit entscheidet
+    private static final List<Comparator<Country>> COMPARATORS = List.of(Country.BY_NUMBER_OF_LANGUAGES_ASC,
+            Country.BY_POPULATION_ASC.reversed(), new SortByContinentThenPopulationDesc(), Country.BY_AREA_DESC);
+
+    @ParameterizedTest(name = "k = {0}")
+    @ValueSource(ints = {0, 1, 7, 100, SIZE - 1, SIZE, SIZE + 10})
+    void matchesSortedLimit(int k) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(SIZE);
+        for (Comparator<Country> comparator : COMPARATORS) {
+            List<Country> expected = countries.stream().sorted(comparator).limit(k).toList();
+
+            assertEquals(expected, TopK.of(countries, k, comparator));
+            assertEquals(expected, countries.stream().collect(TopK.collector(k, comparator)));
+            // Die Teilergebnisse werden über merge zusammengeführt
+            assertEquals(expected, countries.parallelStream().collect(TopK.collector(k, comparator)));
+        }
+    }
+
+    @ParameterizedTest(name = "k = {0}")
+    @ValueSource(ints = {0, 1, 7, SIZE})
+    void perContinentMatchesGroupedSortedLimit(int k) {
+        List<Country> countries = RadixSortEngineTest.awkwardCountries(SIZE);
+        for (Comparator<Country> comparator : COMPARATORS) {
+            Map<Continent, List<Country>> expected = countries.stream()
+                    .filter(country -> country.getContinent() != null)
+                    .collect(Collectors.groupingBy(Country::getContinent, () -> new EnumMap<>(Continent.class),
+                            Collectors.collectingAndThen(Collectors.toList(),
+                                    list -> list.stream().sorted(comparator).limit(k).toList())));
+
+            assertEquals(expected, TopK.perContinent(countries, k, comparator));
+            assertEquals(expected, countries.parallelStream().collect(TopK.perContinentCollector(k, comparator)));
+        }
+    }
+
+    @Test
+    void handlesEmptyInput() {
+        assertEquals(List.of(), TopK.of(List.<Country>of(), 5, Country.BY_AREA_DESC));
+        assertEquals(Map.of(), TopK.perContinent(List.of(), 5, Country.BY_AREA_DESC));
+    }
+
+    @Test
+    void keepsAtMostKElements() {
+        TopK<Integer> topK = new TopK<>(3, Comparator.naturalOrder());
+        for (int i = 100; i > 0; i--) {
+            topK.accept(i);
+            assertEquals(Math.min(3, 101 - i), topK.size());
+        }
+
+        assertEquals(List.of(1, 2, 3), topK.toList());
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(-1, Comparator.naturalOrder()));
+    }
+}